@@ -0,0 +1,31 @@
+package com.appempatia.empatiaapi.benchmark;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+
+public class SlowReadTrigger implements Trigger {
+
+    static volatile long delayMillis;
+
+    @Override
+    public void init(Connection conn, String schemaName, String triggerName, String tableName, boolean before, int type) {
+    }
+
+    @Override
+    public void fire(Connection conn, Object[] oldRow, Object[] newRow) {
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void remove() {
+    }
+}
@@ -0,0 +1,78 @@
+package com.appempatia.empatiaapi.benchmark;
+
+import com.appempatia.empatiaapi.api.dto.PageDTO;
+import com.appempatia.empatiaapi.api.dto.UserDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserJsonBenchmark {
+
+    @Param({"20", "100"})
+    int rows;
+
+    ObjectWriter writer;
+    ObjectWriter afterburnerWriter;
+    ObjectWriter blackbirdWriter;
+    Page<UserDTO> page;
+    PageDTO<UserDTO> compactPage;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+
+        ObjectMapper afterburnerMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new AfterburnerModule()).build();
+        afterburnerWriter = afterburnerMapper.writer();
+
+        ObjectMapper blackbirdMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build();
+        blackbirdWriter = blackbirdMapper.writer();
+
+        List<UserDTO> list = new ArrayList<>(rows);
+        for(long i = 1; i <= rows; i++){
+            list.add(UserDTO.builder().id(i).name("Jhon Dole " + i).email("jhon" + i + "@dole.com").password("123456789").role(1).cellphone("99999999999").build());
+        }
+
+        page = new PageImpl<>(list, PageRequest.of(0, rows), rows * 10L);
+        compactPage = PageDTO.of(page, list);
+
+        System.out.printf("%nbytes per page (%d rows): page=%d compactPage=%d%n",
+                rows, writer.writeValueAsBytes(page).length, writer.writeValueAsBytes(compactPage).length);
+    }
+
+    @Benchmark
+    public byte[] page() throws Exception {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] compactPage() throws Exception {
+        return writer.writeValueAsBytes(compactPage);
+    }
+
+    @Benchmark
+    public byte[] compactPageAfterburner() throws Exception {
+        return afterburnerWriter.writeValueAsBytes(compactPage);
+    }
+
+    @Benchmark
+    public byte[] compactPageBlackbird() throws Exception {
+        return blackbirdWriter.writeValueAsBytes(compactPage);
+    }
+}
@@ -0,0 +1,107 @@
+package com.appempatia.empatiaapi.benchmark;
+
+import com.appempatia.empatiaapi.AppempatiaApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * ./mvnw -Pbenchmark,java21 test-compile exec:exec -Djmh.args="UserLoad"
+ *
+ * Needs a JDK 21 as JAVA_HOME so the forks can start virtual threads; the classes themselves are
+ * still compiled for Java 8, which is all Spring Framework 5.3 can scan.
+ *
+ * Every read of the user table sleeps for dbDelayMillis, so each request holds its thread for
+ * at least that long. With the platform pool the server tops out at server.tomcat.threads.max
+ * requests in flight; with virtual threads only the connection pool bounds concurrency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UserLoadBenchmark {
+
+    @Param({"false", "true"})
+    boolean virtual;
+
+    @Param({"1000"})
+    int concurrency;
+
+    @Param({"20"})
+    long dbDelayMillis;
+
+    ConfigurableApplicationContext context;
+    ExecutorService clients;
+    URL url;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = new SpringApplicationBuilder(AppempatiaApplication.class)
+                .run("--server.port=0",
+                        "--app.threads.virtual=" + virtual,
+                        "--spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.hikari.maximum-pool-size=" + concurrency,
+                        "--logging.level.root=WARN");
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.execute("create trigger slow_user_reads before select on user call \"" + SlowReadTrigger.class.getName() + "\"");
+        SlowReadTrigger.delayMillis = dbDelayMillis;
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        url = new URL("http://localhost:" + port + "/api/users?count=false&size=1");
+        clients = Executors.newFixedThreadPool(concurrency);
+    }
+
+    @TearDown
+    public void tearDown(){
+        clients.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    public int concurrentReads() throws Exception {
+        List<Future<Integer>> responses = new ArrayList<>(concurrency);
+        for(int i = 0; i < concurrency; i++){
+            responses.add(clients.submit(this::get));
+        }
+
+        int ok = 0;
+        for(Future<Integer> response : responses){
+            if(response.get() == 200){
+                ok++;
+            }
+        }
+
+        return ok;
+    }
+
+    private int get() {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            try (InputStream body = connection.getInputStream()) {
+                while(body.read() != -1){
+                }
+            }
+
+            return connection.getResponseCode();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
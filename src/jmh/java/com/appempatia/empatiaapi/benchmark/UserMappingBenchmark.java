@@ -0,0 +1,66 @@
+package com.appempatia.empatiaapi.benchmark;
+
+import com.appempatia.empatiaapi.api.dto.UserDTO;
+import com.appempatia.empatiaapi.api.mapper.UserMapper;
+import com.appempatia.empatiaapi.model.entity.User;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMappingBenchmark {
+
+    @Param({"1", "100"})
+    int rows;
+
+    ModelMapper modelMapper;
+    UserMapper userMapper;
+
+    List<User> users;
+    UserDTO dto;
+
+    @Setup
+    public void setUp(){
+        modelMapper = new ModelMapper();
+        userMapper = new UserMapper();
+
+        users = new ArrayList<>(rows);
+        for(long i = 1; i <= rows; i++){
+            users.add(User.builder().id(i).name("Jhon Dole " + i).email("jhon" + i + "@dole.com").password("123456789").role(1).cellphone("99999999999").build());
+        }
+
+        dto = UserDTO.builder().name("Jhon Dole").email("jhon@dole.com").password("123456789").role(1).cellphone("99999999999").build();
+    }
+
+    @Benchmark
+    public List<UserDTO> modelMapperPage(){
+        List<UserDTO> list = new ArrayList<>(users.size());
+        for(User user : users){
+            list.add(modelMapper.map(user, UserDTO.class));
+        }
+        return list;
+    }
+
+    @Benchmark
+    public List<UserDTO> userMapperPage(){
+        return userMapper.toDtoList(users);
+    }
+
+    @Benchmark
+    public User modelMapperToEntity(){
+        return modelMapper.map(dto, User.class);
+    }
+
+    @Benchmark
+    public User userMapperToEntity(){
+        return userMapper.toEntity(dto);
+    }
+}
@@ -0,0 +1,92 @@
+package com.appempatia.empatiaapi.benchmark;
+
+import com.appempatia.empatiaapi.AppempatiaApplication;
+import com.appempatia.empatiaapi.model.entity.User;
+import com.appempatia.empatiaapi.model.repository.UserRepository;
+import com.appempatia.empatiaapi.service.UserService;
+import com.appempatia.empatiaapi.service.support.UserSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class UserSearchBenchmark {
+
+    @Param({"1000000"})
+    int rows;
+
+    @Param({"dole 4242", "jhon123"})
+    String name;
+
+    ConfigurableApplicationContext context;
+    UserService service;
+    UserRepository repository;
+
+    User filter;
+    Example<User> example;
+    PageRequest pageRequest = PageRequest.of(0, 20);
+
+    @Setup
+    public void setUp(){
+        context = new SpringApplicationBuilder(AppempatiaApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:search;DB_CLOSE_DELAY=-1",
+                        "--logging.level.root=WARN");
+
+        service = context.getBean(UserService.class);
+        repository = context.getBean(UserRepository.class);
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        List<Object[]> batch = new ArrayList<>(10000);
+        for(long i = 1; i <= rows; i++){
+            batch.add(new Object[]{i, "Jhon Dole " + i, "jhon" + i + "@dole.com", "123456789", 1, "99999" + i});
+            if(batch.size() == 10000){
+                jdbc.batchUpdate("insert into user (id, name, email, password, role, cellphone, version) values (?, ?, ?, ?, ?, ?, 0)", batch);
+                batch.clear();
+            }
+        }
+        if(!batch.isEmpty()){
+            jdbc.batchUpdate("insert into user (id, name, email, password, role, cellphone, version) values (?, ?, ?, ?, ?, ?, 0)", batch);
+        }
+
+        context.getBean(UserSearchIndex.class).warmUp();
+
+        filter = User.builder().name(name).build();
+        example = Example.of(filter, ExampleMatcher
+                .matching()
+                .withIgnoreCase()
+                .withIgnoreNullValues()
+                .withIgnorePaths("role")
+                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
+    }
+
+    @TearDown
+    public void tearDown(){
+        context.close();
+    }
+
+    @Benchmark
+    public Page<User> searchIndex(){
+        return service.find(filter, pageRequest);
+    }
+
+    @Benchmark
+    public Page<User> exampleQuery(){
+        return repository.findAll(example, pageRequest);
+    }
+}
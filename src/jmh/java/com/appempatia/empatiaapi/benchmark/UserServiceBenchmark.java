@@ -0,0 +1,79 @@
+package com.appempatia.empatiaapi.benchmark;
+
+import com.appempatia.empatiaapi.AppempatiaApplication;
+import com.appempatia.empatiaapi.model.entity.User;
+import com.appempatia.empatiaapi.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    @Param({"10000"})
+    int rows;
+
+    ConfigurableApplicationContext context;
+    UserService service;
+
+    AtomicLong sequence = new AtomicLong();
+
+    @Setup
+    public void setUp(){
+        context = new SpringApplicationBuilder(AppempatiaApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--app.users.password.min-strength=4",
+                        "--app.users.password.target-latency=0ms",
+                        "--logging.level.root=WARN");
+
+        service = context.getBean(UserService.class);
+
+        for(int i = 0; i < rows; i++){
+            service.save(newUser()).join();
+        }
+    }
+
+    @TearDown
+    public void tearDown(){
+        context.close();
+    }
+
+    @Benchmark
+    public User save(){
+        return service.save(newUser()).join();
+    }
+
+    @Benchmark
+    public Page<User> findByName(){
+        return service.find(User.builder().name("dole 12").build(), PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Page<User> findAll(){
+        return service.find(new User(), PageRequest.of(0, 20));
+    }
+
+    private User newUser(){
+        long n = sequence.incrementAndGet();
+
+        return User.builder()
+                .name("Jhon Dole " + n)
+                .email("jhon" + n + "@dole.com")
+                .password("123456789")
+                .role(1)
+                .cellphone("99999999999")
+                .build();
+    }
+}
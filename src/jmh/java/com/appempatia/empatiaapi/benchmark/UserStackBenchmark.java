@@ -0,0 +1,120 @@
+package com.appempatia.empatiaapi.benchmark;
+
+import com.appempatia.empatiaapi.AppempatiaApplication;
+import com.appempatia.empatiaapi.service.support.UserCounter;
+import com.appempatia.empatiaapi.service.support.UserSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="UserStack"
+ *
+ * Same requests against the servlet stack (Tomcat, 200 threads) and the reactive profile
+ * (Netty event loop, one thread per core) at high connection counts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UserStackBenchmark {
+
+    @Param({"servlet", "reactive"})
+    String stack;
+
+    @Param({"get", "find"})
+    String endpoint;
+
+    @Param({"2000"})
+    int concurrency;
+
+    @Param({"10000"})
+    int rows;
+
+    ConfigurableApplicationContext context;
+    ExecutorService clients;
+    String baseUrl;
+
+    @Setup
+    public void setUp(){
+        context = new SpringApplicationBuilder(AppempatiaApplication.class)
+                .profiles(stack.equals("reactive") ? new String[]{"reactive"} : new String[0])
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:stack;DB_CLOSE_DELAY=-1",
+                        "--app.r2dbc.url=r2dbc:h2:mem:///stack?options=DB_CLOSE_DELAY=-1",
+                        "--logging.level.root=WARN");
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        List<Object[]> batch = new ArrayList<>(rows);
+        for(long i = 1; i <= rows; i++){
+            batch.add(new Object[]{i, "Jhon Dole " + i, "jhon" + i + "@dole.com", "123456789", 1, "99999" + i});
+        }
+        jdbc.batchUpdate("insert into user (id, name, email, password, role, cellphone, version) values (?, ?, ?, ?, ?, ?, 0)", batch);
+        context.getBean(UserSearchIndex.class).warmUp();
+        context.getBean(UserCounter.class).warmUp();
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/users";
+        clients = Executors.newFixedThreadPool(concurrency);
+    }
+
+    @TearDown
+    public void tearDown(){
+        clients.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    public int concurrentRequests() throws Exception {
+        List<Future<Integer>> responses = new ArrayList<>(concurrency);
+        for(int i = 0; i < concurrency; i++){
+            responses.add(clients.submit(() -> get(nextUrl())));
+        }
+
+        int ok = 0;
+        for(Future<Integer> response : responses){
+            if(response.get() == 200){
+                ok++;
+            }
+        }
+
+        return ok;
+    }
+
+    private String nextUrl() {
+        int n = ThreadLocalRandom.current().nextInt(rows) + 1;
+
+        return endpoint.equals("get") ? baseUrl + "/" + n : baseUrl + "?email=jhon" + n + "@&size=20";
+    }
+
+    private int get(String url) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            try (InputStream body = connection.getInputStream()) {
+                while(body.read() != -1){
+                }
+            }
+
+            return connection.getResponseCode();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.appempatia.empatiaapi.benchmark;
+
+import com.appempatia.empatiaapi.AppempatiaApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="UserStartup"
+ *
+ * Every fork is a fresh JVM and measures one cold start up to ApplicationReadyEvent, so the score is
+ * the time a new instance needs before it accepts traffic. Target: fast-start at most 60% of default.
+ * Add -jvmArgsAppend -XX:SharedArchiveFile=target/appempatia.jsa (see the cds profile) to include CDS.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class UserStartupBenchmark {
+
+    @Param({"default", "fast-start"})
+    String profile;
+
+    ConfigurableApplicationContext context;
+
+    @Benchmark
+    public ConfigurableApplicationContext start(){
+        context = new SpringApplicationBuilder(AppempatiaApplication.class)
+                .applicationStartup(new BufferingApplicationStartup(4096))
+                .profiles(profile)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:startup;DB_CLOSE_DELAY=-1",
+                        "--logging.level.root=WARN");
+
+        return context;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown(){
+        context.close();
+    }
+}
@@ -0,0 +1,103 @@
+package com.appempatia.empatiaapi.benchmark;
+
+import com.appempatia.empatiaapi.AppempatiaApplication;
+import com.appempatia.empatiaapi.model.entity.User;
+import com.appempatia.empatiaapi.model.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="UserStorage"
+ *
+ * "mem" is the default in-memory database with a Hibernate generated schema, "file" is the
+ * persistent profile (file-backed MVStore, Flyway schema, tuned Hikari pool) on a temporary directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserStorageBenchmark {
+
+    @Param({"mem", "file"})
+    String storage;
+
+    @Param({"100000"})
+    int rows;
+
+    ConfigurableApplicationContext context;
+    UserRepository repository;
+    Path directory;
+
+    AtomicLong sequence = new AtomicLong();
+    List<Long> ids;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("appempatia-storage");
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(AppempatiaApplication.class)
+                .web(WebApplicationType.NONE);
+
+        context = "file".equals(storage)
+                ? builder.profiles("persistent").run("--app.storage.path=" + directory.toAbsolutePath(), "--logging.level.root=WARN")
+                : builder.run("--spring.datasource.url=jdbc:h2:mem:storage;DB_CLOSE_DELAY=-1", "--logging.level.root=WARN");
+
+        repository = context.getBean(UserRepository.class);
+
+        ids = new ArrayList<>(rows);
+        List<User> batch = new ArrayList<>(1000);
+        for(int i = 0; i < rows; i++){
+            batch.add(newUser());
+            if(batch.size() == 1000){
+                repository.saveAll(batch).forEach(user -> ids.add(user.getId()));
+                batch.clear();
+            }
+        }
+        if(!batch.isEmpty()){
+            repository.saveAll(batch).forEach(user -> ids.add(user.getId()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public User insert(){
+        return repository.saveAndFlush(newUser());
+    }
+
+    @Benchmark
+    public Optional<User> lookup(){
+        return repository.findById(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+    }
+
+    private User newUser(){
+        long n = sequence.incrementAndGet();
+
+        return User.builder()
+                .name("Jhon Dole " + n)
+                .email("jhon" + n + "@dole.com")
+                .password("123456789")
+                .role(1)
+                .cellphone("99999999999")
+                .build();
+    }
+}
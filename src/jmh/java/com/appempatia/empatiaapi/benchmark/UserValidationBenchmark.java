@@ -0,0 +1,50 @@
+package com.appempatia.empatiaapi.benchmark;
+
+import com.appempatia.empatiaapi.api.dto.UserDTO;
+import org.openjdk.jmh.annotations.*;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserValidationBenchmark {
+
+    ValidatorFactory factory;
+    Validator validator;
+
+    UserDTO valid;
+    UserDTO invalid;
+
+    @Setup
+    public void setUp(){
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+
+        valid = UserDTO.builder().name("Jhon Dole").email("jhon@dole.com").password("123456789").role(1).cellphone("99999999999").build();
+        invalid = new UserDTO();
+    }
+
+    @TearDown
+    public void tearDown(){
+        factory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserDTO>> validUser(){
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserDTO>> invalidUser(){
+        return validator.validate(invalid);
+    }
+}
@@ -1,20 +1,17 @@
 package com.appempatia.empatiaapi;
 
-import org.modelmapper.ModelMapper;
+import com.appempatia.empatiaapi.config.StartupTimelineListener;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class AppempatiaApplication {
 
-    @Bean
-    public ModelMapper modelMapper(){
-        return new ModelMapper();
-    }
-
     public static void main(String[] args) {
-        SpringApplication.run(AppempatiaApplication.class, args);
+        SpringApplication application = new SpringApplication(AppempatiaApplication.class);
+        application.addListeners(new StartupTimelineListener());
+        application.run(args);
     }
 
 }
@@ -0,0 +1,18 @@
+package com.appempatia.empatiaapi.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemDTO {
+    private int index;
+
+    private UserDTO user;
+
+    private List<String> errors;
+}
@@ -0,0 +1,18 @@
+package com.appempatia.empatiaapi.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResultDTO {
+    private int created;
+
+    private int failed;
+
+    private List<BatchItemDTO> items;
+}
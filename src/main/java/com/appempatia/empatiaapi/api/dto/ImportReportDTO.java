@@ -0,0 +1,17 @@
+package com.appempatia.empatiaapi.api.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ImportReportDTO {
+    private long processed;
+
+    private long imported;
+
+    private long failed;
+
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+}
@@ -0,0 +1,25 @@
+package com.appempatia.empatiaapi.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SliceDTO<T> {
+    private List<T> content;
+
+    private int number;
+
+    private int size;
+
+    private boolean last;
+
+    public static <T> SliceDTO<T> of(Slice<?> slice, List<T> content) {
+        return new SliceDTO<>(content, slice.getNumber(), slice.getSize(), slice.isLast());
+    }
+}
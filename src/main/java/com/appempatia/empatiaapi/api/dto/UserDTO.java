@@ -1,5 +1,6 @@
 package com.appempatia.empatiaapi.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
 import javax.validation.constraints.NotEmpty;
@@ -10,6 +11,9 @@ import javax.validation.constraints.NotNull;
 @NoArgsConstructor
 @AllArgsConstructor
 public class UserDTO {
+
+    public interface Create {}
+
     private Long id;
 
     @NotEmpty
@@ -18,7 +22,8 @@ public class UserDTO {
     @NotEmpty
     private String email;
 
-    @NotEmpty
+    @NotEmpty(groups = Create.class)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String password;
 
     @NotNull
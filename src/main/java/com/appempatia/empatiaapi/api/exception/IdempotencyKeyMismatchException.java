@@ -0,0 +1,7 @@
+package com.appempatia.empatiaapi.api.exception;
+
+public class IdempotencyKeyMismatchException extends RuntimeException {
+    public IdempotencyKeyMismatchException(String s) {
+        super(s);
+    }
+}
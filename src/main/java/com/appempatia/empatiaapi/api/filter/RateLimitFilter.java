@@ -0,0 +1,85 @@
+package com.appempatia.empatiaapi.api.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final byte[] TOO_MANY_REQUESTS =
+            "{\"errors\":[\"Muitas requisições, tente novamente em instantes.\"]}".getBytes(StandardCharsets.UTF_8);
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final TokenBucket reads;
+    private final TokenBucket writes;
+    private final String keyHeader;
+    private final Set<String> trustedProxies;
+
+    private final Counter rejectedReads;
+    private final Counter rejectedWrites;
+
+    public RateLimitFilter(TokenBucket reads, TokenBucket writes, String keyHeader, Set<String> trustedProxies,
+                           MeterRegistry registry) {
+        this.reads = reads;
+        this.writes = writes;
+        this.keyHeader = keyHeader == null || keyHeader.isEmpty() ? null : keyHeader;
+        this.trustedProxies = trustedProxies;
+        this.rejectedReads = rejectedCounter(registry, "read");
+        this.rejectedWrites = rejectedCounter(registry, "write");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean read = isRead(request.getMethod());
+        long wait = (read ? reads : writes).tryAcquire(clientKey(request));
+
+        if(wait == 0){
+            chain.doFilter(request, response);
+            return;
+        }
+
+        (read ? rejectedReads : rejectedWrites).increment();
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString((wait + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(TOO_MANY_REQUESTS.length);
+        response.getOutputStream().write(TOO_MANY_REQUESTS);
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        // the header is set by the client, so only a proxy we trust can vouch for it
+        if(keyHeader != null && trustedProxies.contains(request.getRemoteAddr())){
+            String key = request.getHeader(keyHeader);
+            if(key != null && !key.isEmpty()){
+                return key;
+            }
+        }
+
+        return request.getRemoteAddr();
+    }
+
+    private boolean isRead(String method) {
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry registry, String budget) {
+        return Counter.builder("user.api.rate.limit.rejected")
+                .description("Requests answered with 429 by the rate limiter")
+                .tag("budget", budget)
+                .register(registry);
+    }
+}
@@ -0,0 +1,63 @@
+package com.appempatia.empatiaapi.api.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+public class TokenBucket {
+
+    private final long emissionNanos;
+    private final long toleranceNanos;
+    private final LongSupplier clock;
+    private final long origin;
+
+    private final Cache<String, AtomicLong> arrivals;
+    private final Function<String, AtomicLong> newArrival = key -> new AtomicLong();
+
+    public TokenBucket(double permitsPerSecond, int burst, long maximumClients) {
+        this(permitsPerSecond, burst, maximumClients, System::nanoTime);
+    }
+
+    public TokenBucket(double permitsPerSecond, int burst, long maximumClients, LongSupplier clock) {
+        if(permitsPerSecond <= 0 || burst < 1){
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+
+        this.emissionNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.toleranceNanos = emissionNanos * burst;
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+        this.arrivals = Caffeine.newBuilder()
+                .maximumSize(maximumClients)
+                .expireAfterAccess(Duration.ofNanos(Math.max(toleranceNanos, TimeUnit.SECONDS.toNanos(1))))
+                .build();
+    }
+
+    public long tryAcquire(String key) {
+        AtomicLong arrival = arrivals.get(key, newArrival);
+        long now = clock.getAsLong() - origin;
+
+        while(true){
+            long theoretical = arrival.get();
+            long next = Math.max(theoretical, now) + emissionNanos;
+            long wait = next - toleranceNanos - now;
+
+            if(wait > 0){
+                return wait;
+            }
+
+            if(arrival.compareAndSet(theoretical, next)){
+                return 0;
+            }
+        }
+    }
+
+    public long size() {
+        return arrivals.estimatedSize();
+    }
+}
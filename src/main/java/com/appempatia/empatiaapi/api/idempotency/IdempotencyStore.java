@@ -0,0 +1,117 @@
+package com.appempatia.empatiaapi.api.idempotency;
+
+import com.appempatia.empatiaapi.api.exception.BusinessException;
+import com.appempatia.empatiaapi.api.exception.IdempotencyKeyMismatchException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+@Component
+public class IdempotencyStore {
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Entry> cache;
+
+    private final LongAdder replays = new LongAdder();
+
+    public IdempotencyStore(ObjectMapper objectMapper,
+                            @Value("${app.users.idempotency.maximum-size:10000}") long maximumSize,
+                            @Value("${app.users.idempotency.expire-after-write:24h}") Duration expireAfterWrite) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<ResponseEntity<T>> execute(String key, Object request,
+                                                            Supplier<CompletableFuture<ResponseEntity<T>>> action) {
+        if(key.isEmpty() || key.length() > MAX_KEY_LENGTH){
+            throw new BusinessException("Idempotency-Key inválida.");
+        }
+
+        ConcurrentMap<String, Entry> entries = cache.asMap();
+        Entry entry = new Entry(fingerprint(request));
+        Entry existing = entries.putIfAbsent(key, entry);
+
+        if(existing != null){
+            if(!existing.fingerprint.equals(entry.fingerprint)){
+                throw new IdempotencyKeyMismatchException("Idempotency-Key já utilizada com outra requisição.");
+            }
+
+            replays.increment();
+
+            return existing.response.thenApply(response -> (ResponseEntity<T>) replayed(response));
+        }
+
+        CompletableFuture<ResponseEntity<T>> result;
+        try {
+            result = action.get();
+        } catch (RuntimeException ex) {
+            entries.remove(key, entry);
+            entry.response.completeExceptionally(ex);
+            throw ex;
+        }
+
+        return result.whenComplete((response, ex) -> {
+            if(ex != null){
+                entries.remove(key, entry);
+                entry.response.completeExceptionally(ex);
+            } else {
+                entry.response.complete(response);
+            }
+        });
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public long getReplays() {
+        return replays.sum();
+    }
+
+    private ResponseEntity<?> replayed(ResponseEntity<?> response) {
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(response.getBody());
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Could not fingerprint the request", ex);
+        }
+    }
+
+    private static class Entry {
+        private final String fingerprint;
+        private final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+
+        private Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.appempatia.empatiaapi.api.importer;
+
+import com.appempatia.empatiaapi.api.dto.ImportErrorDTO;
+import com.appempatia.empatiaapi.api.dto.ImportReportDTO;
+import com.appempatia.empatiaapi.api.dto.UserDTO;
+import com.appempatia.empatiaapi.api.exception.BusinessException;
+import com.appempatia.empatiaapi.api.mapper.UserMapper;
+import com.appempatia.empatiaapi.model.entity.User;
+import com.appempatia.empatiaapi.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import javax.validation.groups.Default;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@Component
+public class UserImporter {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final UserService service;
+    private final UserMapper mapper;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public UserImporter(UserService service, UserMapper mapper, Validator validator, ObjectMapper objectMapper,
+                        @Value("${app.users.import.chunk-size:500}") int chunkSize) {
+        this.service = service;
+        this.mapper = mapper;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    public ImportReportDTO importCsv(InputStream body) throws IOException {
+        return run(body, true);
+    }
+
+    public ImportReportDTO importNdjson(InputStream body) throws IOException {
+        return run(body, false);
+    }
+
+    private ImportReportDTO run(InputStream body, boolean csv) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        ImportReportDTO report = new ImportReportDTO();
+
+        List<User> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkLines = new ArrayList<>(chunkSize);
+        List<String> header = null;
+
+        long lineNumber = 0;
+        String line;
+        while((line = reader.readLine()) != null){
+            lineNumber++;
+            if(line.trim().isEmpty()){
+                continue;
+            }
+
+            if(csv && header == null){
+                header = parseCsv(line);
+                continue;
+            }
+
+            report.setProcessed(report.getProcessed() + 1);
+
+            UserDTO dto;
+            try {
+                dto = csv ? fromCsv(header, parseCsv(line)) : objectMapper.readValue(line, UserDTO.class);
+            } catch (IOException | IllegalArgumentException ex) {
+                fail(report, lineNumber, Collections.singletonList("Linha inválida."));
+                continue;
+            }
+
+            Set<ConstraintViolation<UserDTO>> violations = validator.validate(dto, Default.class, UserDTO.Create.class);
+            if(!violations.isEmpty()){
+                List<String> errors = new ArrayList<>(violations.size());
+                violations.forEach(violation -> errors.add(violation.getPropertyPath() + " " + violation.getMessage()));
+                fail(report, lineNumber, errors);
+                continue;
+            }
+
+            chunk.add(mapper.toEntity(dto));
+            chunkLines.add(lineNumber);
+
+            if(chunk.size() == chunkSize){
+                commit(report, chunk, chunkLines);
+            }
+        }
+
+        if(!chunk.isEmpty()){
+            commit(report, chunk, chunkLines);
+        }
+
+        log.info("Import finished: {} processed, {} imported, {} failed", report.getProcessed(), report.getImported(), report.getFailed());
+
+        return report;
+    }
+
+    private void commit(ImportReportDTO report, List<User> chunk, List<Long> chunkLines) {
+        try {
+            Map<Integer, String> rejected = service.saveAll(chunk);
+
+            report.setImported(report.getImported() + chunk.size() - rejected.size());
+            rejected.forEach((index, error) -> fail(report, chunkLines.get(index), Collections.singletonList(error)));
+        } catch (BusinessException ex) {
+            for(Long line : chunkLines){
+                fail(report, line, Collections.singletonList(ex.getMessage()));
+            }
+        }
+
+        chunk.clear();
+        chunkLines.clear();
+
+        log.info("Import progress: {} processed, {} imported, {} failed", report.getProcessed(), report.getImported(), report.getFailed());
+    }
+
+    private void fail(ImportReportDTO report, long line, List<String> errors) {
+        report.setFailed(report.getFailed() + 1);
+
+        if(report.getErrors().size() < MAX_REPORTED_ERRORS){
+            report.getErrors().add(new ImportErrorDTO(line, errors));
+        }
+    }
+
+    private UserDTO fromCsv(List<String> header, List<String> values) {
+        if(values.size() != header.size()){
+            throw new IllegalArgumentException("Expected " + header.size() + " columns");
+        }
+
+        UserDTO dto = new UserDTO();
+        for(int i = 0; i < header.size(); i++){
+            String value = values.get(i);
+            switch (header.get(i)) {
+                case "name":
+                    dto.setName(value);
+                    break;
+                case "email":
+                    dto.setEmail(value);
+                    break;
+                case "password":
+                    dto.setPassword(value);
+                    break;
+                case "role":
+                    dto.setRole(value.isEmpty() ? 0 : Integer.parseInt(value));
+                    break;
+                case "cellphone":
+                    dto.setCellphone(value);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        return dto;
+    }
+
+    private List<String> parseCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+
+        for(int i = 0; i < line.length(); i++){
+            char c = line.charAt(i);
+            if(quoted){
+                if(c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"'){
+                    value.append('"');
+                    i++;
+                } else if(c == '"'){
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if(c == '"'){
+                quoted = true;
+            } else if(c == ','){
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+
+        if(quoted){
+            throw new IllegalArgumentException("Unterminated quoted value");
+        }
+
+        values.add(value.toString());
+        return values;
+    }
+}
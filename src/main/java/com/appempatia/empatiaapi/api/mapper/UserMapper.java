@@ -0,0 +1,53 @@
+package com.appempatia.empatiaapi.api.mapper;
+
+import com.appempatia.empatiaapi.api.dto.UserDTO;
+import com.appempatia.empatiaapi.model.entity.User;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class UserMapper {
+
+    public User toEntity(UserDTO dto){
+        if(dto == null){
+            return null;
+        }
+
+        User user = new User();
+        user.setId(dto.getId());
+        user.setName(dto.getName());
+        user.setEmail(dto.getEmail());
+        user.setPassword(dto.getPassword());
+        user.setRole(dto.getRole());
+        user.setCellphone(dto.getCellphone());
+
+        return user;
+    }
+
+    public UserDTO toDto(User user){
+        if(user == null){
+            return null;
+        }
+
+        UserDTO dto = new UserDTO();
+        dto.setId(user.getId());
+        dto.setName(user.getName());
+        dto.setEmail(user.getEmail());
+        dto.setRole(user.getRole());
+        dto.setCellphone(user.getCellphone());
+
+        return dto;
+    }
+
+    public List<UserDTO> toDtoList(List<User> users){
+        List<UserDTO> list = new ArrayList<>(users.size());
+
+        for(User user : users){
+            list.add(toDto(user));
+        }
+
+        return list;
+    }
+}
@@ -0,0 +1,97 @@
+package com.appempatia.empatiaapi.api.resources;
+
+import com.appempatia.empatiaapi.api.dto.PageDTO;
+import com.appempatia.empatiaapi.api.dto.UserDTO;
+import com.appempatia.empatiaapi.api.exception.ApiErrors;
+import com.appempatia.empatiaapi.api.exception.BusinessException;
+import com.appempatia.empatiaapi.api.mapper.UserMapper;
+import com.appempatia.empatiaapi.service.ReactiveUserService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import javax.validation.groups.Default;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/users")
+@Profile("reactive")
+public class ReactiveUserController {
+
+    private ReactiveUserService service;
+    private UserMapper mapper;
+
+    public ReactiveUserController(ReactiveUserService service, UserMapper mapper) {
+        this.service = service;
+        this.mapper = mapper;
+    }
+
+    @GetMapping("{id}")
+    public Mono<UserDTO> get(@PathVariable Long id){
+        return service.getById(id)
+                .map(mapper::toDto)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+
+    @GetMapping
+    public Mono<PageDTO<UserDTO>> find(UserDTO dto, Pageable pageRequest){
+        return service.find(mapper.toEntity(dto), pageRequest)
+                .map(result -> PageDTO.of(result, mapper.toDtoList(result.getContent())));
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<UserDTO> create(@RequestBody @Validated({Default.class, UserDTO.Create.class}) UserDTO dto){
+        return service.save(mapper.toEntity(dto))
+                .map(mapper::toDto);
+    }
+
+    @PutMapping("{id}")
+    public Mono<UserDTO> update(@PathVariable Long id, @RequestBody @Valid UserDTO dto){
+        return service.update(id, mapper.toEntity(dto))
+                .map(mapper::toDto)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+
+    @PatchMapping(value = "{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public Mono<UserDTO> patch(@PathVariable Long id, @RequestBody Map<String, Object> changes){
+        return service.patch(id, changes)
+                .map(mapper::toDto)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+
+    @DeleteMapping("{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> delete(@PathVariable Long id){
+        return service.deleteById(id)
+                .flatMap(deleted -> deleted
+                        ? Mono.<Void>empty()
+                        : Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiErrors handleValidationExceptions(WebExchangeBindException ex){
+        return new ApiErrors(ex.getBindingResult());
+    }
+
+    @ExceptionHandler(BusinessException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiErrors handleBusinessException(BusinessException ex){
+        return new ApiErrors(ex);
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ApiErrors handleRejectedExecutionException(RejectedExecutionException ex){
+        return new ApiErrors("Serviço sobrecarregado, tente novamente em instantes.");
+    }
+}
@@ -1,93 +1,380 @@
 package com.appempatia.empatiaapi.api.resources;
 
+import com.appempatia.empatiaapi.api.dto.BatchItemDTO;
+import com.appempatia.empatiaapi.api.dto.BatchResultDTO;
+import com.appempatia.empatiaapi.api.dto.CursorPageDTO;
+import com.appempatia.empatiaapi.api.dto.ImportReportDTO;
+import com.appempatia.empatiaapi.api.dto.PageDTO;
+import com.appempatia.empatiaapi.api.dto.SliceDTO;
 import com.appempatia.empatiaapi.api.dto.UserDTO;
 import com.appempatia.empatiaapi.api.exception.ApiErrors;
 import com.appempatia.empatiaapi.api.exception.BusinessException;
+import com.appempatia.empatiaapi.api.exception.IdempotencyKeyMismatchException;
+import com.appempatia.empatiaapi.api.idempotency.IdempotencyStore;
+import com.appempatia.empatiaapi.api.importer.UserImporter;
+import com.appempatia.empatiaapi.api.mapper.UserMapper;
 import com.appempatia.empatiaapi.model.entity.User;
 import com.appempatia.empatiaapi.service.UserService;
-import org.modelmapper.ModelMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.server.ResponseStatusException;
 
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validator;
+import javax.validation.groups.Default;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/users")
+@Profile("!reactive")
 public class UserController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 2000;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private UserService service;
-    private ModelMapper modelMapper;
+    private UserMapper mapper;
+    private Validator validator;
+    private ObjectMapper objectMapper;
+    private UserImporter importer;
+    private IdempotencyStore idempotencyStore;
+    private Duration exportTimeout;
 
-    public UserController(UserService service, ModelMapper mapper) {
+    public UserController(UserService service, UserMapper mapper, Validator validator, ObjectMapper objectMapper,
+                          UserImporter importer, IdempotencyStore idempotencyStore,
+                          @Value("${app.users.export.timeout:1h}") Duration exportTimeout) {
         this.service = service;
-        this.modelMapper = mapper;
+        this.mapper = mapper;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.importer = importer;
+        this.idempotencyStore = idempotencyStore;
+        this.exportTimeout = exportTimeout;
     }
 
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    public UserDTO create(@RequestBody @Valid UserDTO dto){
-        User entity = modelMapper.map(dto, User.class);
+    public CompletableFuture<ResponseEntity<UserDTO>> create(@RequestBody @Validated({Default.class, UserDTO.Create.class}) UserDTO dto,
+                                                             @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey){
+        if(idempotencyKey == null){
+            return save(dto);
+        }
+
+        return idempotencyStore.execute(idempotencyKey, dto, () -> save(dto));
+    }
+
+    @PostMapping("batch")
+    public BatchResultDTO createBatch(@RequestBody List<UserDTO> dtos){
+        if(dtos.size() > MAX_BATCH_SIZE){
+            throw new BusinessException("Lote maior que " + MAX_BATCH_SIZE + " usuários.");
+        }
 
-        entity = service.save(entity);
+        List<BatchItemDTO> items = new ArrayList<>(dtos.size());
+        List<User> users = new ArrayList<>(dtos.size());
+        List<Integer> positions = new ArrayList<>(dtos.size());
 
-        return modelMapper.map(entity,UserDTO.class);
+        for(int i = 0; i < dtos.size(); i++){
+            Set<ConstraintViolation<UserDTO>> violations = validator.validate(dtos.get(i), Default.class, UserDTO.Create.class);
+            if(violations.isEmpty()){
+                users.add(mapper.toEntity(dtos.get(i)));
+                positions.add(i);
+                items.add(null);
+            } else {
+                List<String> errors = new ArrayList<>(violations.size());
+                violations.forEach(violation -> errors.add(violation.getPropertyPath() + " " + violation.getMessage()));
+                items.add(new BatchItemDTO(i, null, errors));
+            }
+        }
+
+        Map<Integer, String> rejected = users.isEmpty() ? Collections.emptyMap() : service.saveAll(users);
+
+        int created = 0;
+        for(int i = 0; i < users.size(); i++){
+            int index = positions.get(i);
+            String error = rejected.get(i);
+            if(error == null){
+                items.set(index, new BatchItemDTO(index, mapper.toDto(users.get(i)), null));
+                created++;
+            } else {
+                items.set(index, new BatchItemDTO(index, null, Collections.singletonList(error)));
+            }
+        }
+
+        return new BatchResultDTO(created, dtos.size() - created, items);
+    }
+
+    @PostMapping(value = "import", consumes = "text/csv")
+    public ImportReportDTO importCsv(InputStream body) throws IOException {
+        return importer.importCsv(body);
+    }
+
+    @PostMapping(value = "import", consumes = "application/x-ndjson")
+    public ImportReportDTO importNdjson(InputStream body) throws IOException {
+        return importer.importNdjson(body);
     }
 
     @GetMapping("{id}")
-    public UserDTO get(@PathVariable Long id){
+    public ResponseEntity<UserDTO> get(@PathVariable Long id, WebRequest request){
+        if(request.getHeader(HttpHeaders.IF_NONE_MATCH) != null){
+            Long version = service.findVersion(id)
+                    .orElseThrow(()-> new ResponseStatusException(HttpStatus.NOT_FOUND));
 
-        return service.getById(id)
-                .map(user ->modelMapper.map(user,UserDTO.class))
-                .orElseThrow(()-> new ResponseStatusException(HttpStatus.NOT_FOUND));
+            if(request.checkNotModified(strongETag(version))){
+                return null;
+            }
+        }
 
+        User user = service.getById(id)
+                .orElseThrow(()-> new ResponseStatusException(HttpStatus.NOT_FOUND));
 
+        return ResponseEntity.ok().eTag(strongETag(user.getVersion())).body(mapper.toDto(user));
     }
 
     @DeleteMapping("{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable Long id){
-        User user = service.getById(id).orElseThrow(()-> new ResponseStatusException(HttpStatus.NOT_FOUND));;
-
-        service.delete(user);
+        if(!service.deleteById(id)){
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
     }
 
     @PutMapping("{id}")
-    public UserDTO update(@PathVariable Long id, UserDTO dto){
-        return service.getById(id).map(user -> {
-            user.setName(dto.getName());
-            user.setEmail(dto.getEmail());
-            user.setPassword(dto.getPassword());
-            user.setCellphone(dto.getCellphone());
-            user.setRole(dto.getRole());
+    public CompletableFuture<ResponseEntity<UserDTO>> update(@PathVariable Long id, @RequestBody @Valid UserDTO dto,
+                                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        Long version = parseIfMatch(ifMatch);
+        User user = mapper.toEntity(dto);
+
+        CompletableFuture<Optional<User>> updated = version == null
+                ? service.update(id, user)
+                : service.update(id, version, user);
 
-            user = service.update(user);
+        return updated.thenApply(result -> result
+                .map(entity -> version == null
+                        ? ResponseEntity.ok(mapper.toDto(entity))
+                        : ResponseEntity.ok().eTag(strongETag(entity.getVersion())).body(mapper.toDto(entity)))
+                .orElseThrow(()-> new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
 
-            return modelMapper.map(user,UserDTO.class);
-        }).orElseThrow(()-> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    @PatchMapping(value = "{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public CompletableFuture<ResponseEntity<UserDTO>> patch(@PathVariable Long id, @RequestBody Map<String, Object> changes,
+                                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        Long version = parseIfMatch(ifMatch);
 
+        CompletableFuture<Optional<User>> patched = version == null
+                ? service.patch(id, changes)
+                : service.patch(id, version, changes);
 
+        return patched.thenApply(result -> result
+                .map(user -> ResponseEntity.ok().eTag(strongETag(user.getVersion())).body(mapper.toDto(user)))
+                .orElseThrow(()-> new ResponseStatusException(HttpStatus.NOT_FOUND)));
     }
 
     @GetMapping
-    public Page<UserDTO> find(UserDTO dto, Pageable pageRequest){
-        User filter = modelMapper.map(dto, User.class);
+    public ResponseEntity<PageDTO<UserDTO>> find(UserDTO dto, Pageable pageRequest){
+        User filter = mapper.toEntity(dto);
 
         Page<User> result = service.find(filter, pageRequest);
 
-         List<UserDTO> list = result.getContent().stream()
-                .map(entity -> modelMapper.map(entity,UserDTO.class))
-                .collect(Collectors.toList());
+         List<UserDTO> list = mapper.toDtoList(result.getContent());
+
+         return ResponseEntity.ok()
+                 .eTag(weakETag(result.getContent(), result.getNumber(), result.getSize(), result.getTotalElements()))
+                 .body(PageDTO.of(result, list));
+    }
+
+    @GetMapping(params = {"count=false", "!cursor"})
+    public ResponseEntity<SliceDTO<UserDTO>> findSlice(UserDTO dto, Pageable pageRequest){
+        Slice<User> result = service.findSlice(mapper.toEntity(dto), pageRequest);
+
+        return ResponseEntity.ok()
+                .eTag(weakETag(result.getContent(), result.getNumber(), result.getSize(), result.hasNext() ? 1 : 0))
+                .body(SliceDTO.of(result, mapper.toDtoList(result.getContent())));
+    }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageDTO<UserDTO>> findByCursor(UserDTO dto,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "20") int size){
+        if(size < 1 || size > MAX_CURSOR_PAGE_SIZE){
+            throw new BusinessException("Tamanho de página inválido.");
+        }
+
+        Slice<User> result = service.findAfter(mapper.toEntity(dto), decodeCursor(cursor), size);
+
+        List<User> content = result.getContent();
+        String next = result.hasNext() ? encodeCursor(content.get(content.size() - 1).getId()) : null;
+
+        return ResponseEntity.ok()
+                .eTag(weakETag(content, size, result.hasNext() ? 1 : 0))
+                .body(new CursorPageDTO<>(mapper.toDtoList(content), size, next));
+    }
+
+    @GetMapping("export")
+    public WebAsyncTask<Void> export(UserDTO dto, @RequestParam(defaultValue = "ndjson") String format,
+                                     HttpServletResponse response){
+        User filter = mapper.toEntity(dto);
+
+        if("csv".equals(format)){
+            response.setContentType(CSV.toString());
+            return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+                writer.write("id,name,email,role,cellphone\n");
+                service.export(filter, user -> writeCsv(writer, user));
+                writer.flush();
+                return null;
+            });
+        }
+
+        if("ndjson".equals(format)){
+            response.setContentType(NDJSON.toString());
+            return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+                generator.setRootValueSeparator(null);
+                service.export(filter, user -> writeJson(generator, user));
+                generator.flush();
+                return null;
+            });
+        }
+
+        throw new BusinessException("Formato inválido: " + format + ".");
+    }
+
+    private CompletableFuture<ResponseEntity<UserDTO>> save(UserDTO dto){
+        User entity = mapper.toEntity(dto);
+
+        return service.save(entity)
+                .thenApply(saved -> ResponseEntity.status(HttpStatus.CREATED).body(mapper.toDto(saved)));
+    }
+
+    private void writeCsv(Writer writer, User user){
+        try {
+            writer.write(String.valueOf(user.getId()));
+            writer.write(',');
+            writer.write(csv(user.getName()));
+            writer.write(',');
+            writer.write(csv(user.getEmail()));
+            writer.write(',');
+            writer.write(String.valueOf(user.getRole()));
+            writer.write(',');
+            writer.write(csv(user.getCellphone()));
+            writer.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private String csv(String value){
+        if(value == null){
+            return "";
+        }
+
+        if(value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0){
+            return value;
+        }
+
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private void writeJson(JsonGenerator generator, User user){
+        try {
+            generator.writeStartObject();
+            generator.writeNumberField("id", user.getId());
+            generator.writeStringField("name", user.getName());
+            generator.writeStringField("email", user.getEmail());
+            generator.writeNumberField("role", user.getRole());
+            generator.writeStringField("cellphone", user.getCellphone());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private String encodeCursor(Long id){
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Long parseIfMatch(String ifMatch){
+        if(ifMatch == null || ifMatch.trim().equals("*")){
+            return null;
+        }
 
-         return new PageImpl<UserDTO>(list,pageRequest,result.getTotalElements());
+        String etag = ifMatch.trim();
+        if(etag.length() < 3 || !etag.startsWith("\"") || !etag.endsWith("\"")){
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED);
+        }
+
+        try {
+            return Long.valueOf(etag.substring(1, etag.length() - 1));
+        } catch (NumberFormatException ex) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED);
+        }
+    }
+
+    private String strongETag(long version){
+        return "\"" + version + "\"";
+    }
+
+    private String weakETag(List<User> users, long... parts){
+        long hash = 17;
+        for(long part : parts){
+            hash = 31 * hash + part;
+        }
+        for(User user : users){
+            hash = 31 * hash + user.getId();
+            hash = 31 * hash + user.getVersion();
+        }
+
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    private Long decodeCursor(String cursor){
+        if(cursor == null || cursor.isEmpty()){
+            return null;
+        }
+
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException ex) {
+            throw new BusinessException("Cursor inválido.");
+        }
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -103,6 +390,24 @@ public class UserController {
     public ApiErrors handleBusinessException(BusinessException ex){
         return new ApiErrors(ex);
     }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public ApiErrors handleIdempotencyKeyMismatchException(IdempotencyKeyMismatchException ex){
+        return new ApiErrors(ex.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ApiErrors handleOptimisticLockingFailureException(OptimisticLockingFailureException ex){
+        return new ApiErrors("O usuário foi alterado por outra requisição.");
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ApiErrors handleRejectedExecutionException(RejectedExecutionException ex){
+        return new ApiErrors("Serviço sobrecarregado, tente novamente em instantes.");
+    }
 }
 
 
@@ -0,0 +1,35 @@
+package com.appempatia.empatiaapi.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnJava;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "app.json.fast-accessors", havingValue = "true", matchIfMissing = true)
+public class JsonConfig {
+
+    @Configuration
+    @ConditionalOnJava(JavaVersion.ELEVEN)
+    static class Blackbird {
+
+        @Bean
+        public Module blackbirdModule() {
+            return new BlackbirdModule();
+        }
+    }
+
+    @Configuration
+    @ConditionalOnJava(range = ConditionalOnJava.Range.OLDER_THAN, value = JavaVersion.ELEVEN)
+    static class Afterburner {
+
+        @Bean
+        public Module afterburnerModule() {
+            return new AfterburnerModule();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.appempatia.empatiaapi.config;
+
+import com.appempatia.empatiaapi.api.filter.SqlStatementMetricsFilter;
+import com.appempatia.empatiaapi.api.idempotency.IdempotencyStore;
+import com.appempatia.empatiaapi.service.support.EmailFilter;
+import com.appempatia.empatiaapi.service.support.PasswordHasher;
+import com.appempatia.empatiaapi.service.support.UserCache;
+import com.appempatia.empatiaapi.service.support.UserCounter;
+import com.appempatia.empatiaapi.service.support.UserSearchIndex;
+import com.appempatia.empatiaapi.service.support.UserWriteExecutor;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<SqlStatementMetricsFilter> sqlStatementMetricsFilter(MeterRegistry registry) {
+        FilterRegistrationBean<SqlStatementMetricsFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatementMetricsFilter(registry));
+        registration.addUrlPatterns("/api/*");
+
+        return registration;
+    }
+
+    @Bean
+    public MeterBinder userMetrics(EmailFilter emailFilter, UserCache userCache, UserCounter userCounter,
+                                   UserSearchIndex searchIndex, PasswordHasher passwordHasher,
+                                   UserWriteExecutor writeExecutor, IdempotencyStore idempotencyStore) {
+        return registry -> {
+            Gauge.builder("user.count", userCounter, UserCounter::get)
+                    .description("Cached number of users")
+                    .register(registry);
+
+            Gauge.builder("user.search.index.size", searchIndex, UserSearchIndex::size)
+                    .register(registry);
+
+            FunctionCounter.builder("user.email.filter.queries", emailFilter, EmailFilter::getQueries)
+                    .register(registry);
+            FunctionCounter.builder("user.email.filter.negatives", emailFilter, EmailFilter::getNegatives)
+                    .description("Lookups answered without touching the database")
+                    .register(registry);
+            FunctionCounter.builder("user.email.filter.false.positives", emailFilter, EmailFilter::getFalsePositives)
+                    .register(registry);
+
+            FunctionCounter.builder("user.cache.gets", userCache, cache -> cache.stats().hitCount())
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("user.cache.gets", userCache, cache -> cache.stats().missCount())
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("user.cache.evictions", userCache, cache -> cache.stats().evictionCount())
+                    .register(registry);
+            Gauge.builder("user.cache.size", userCache, UserCache::size)
+                    .register(registry);
+
+            Gauge.builder("user.password.queue.depth", passwordHasher, PasswordHasher::getQueueDepth)
+                    .description("Passwords waiting for a hashing thread")
+                    .register(registry);
+            Gauge.builder("user.password.active", passwordHasher, PasswordHasher::getActiveThreads)
+                    .register(registry);
+            Gauge.builder("user.password.strength", passwordHasher, PasswordHasher::getStrength)
+                    .description("Calibrated bcrypt cost")
+                    .register(registry);
+            FunctionCounter.builder("user.password.rejected", passwordHasher, PasswordHasher::getRejected)
+                    .register(registry);
+            FunctionTimer.builder("user.password.hash", passwordHasher,
+                            PasswordHasher::getHashes, PasswordHasher::getHashTimeNanos, TimeUnit.NANOSECONDS)
+                    .register(registry);
+
+            Gauge.builder("user.write.queue.depth", writeExecutor, UserWriteExecutor::getQueueDepth)
+                    .description("Writes waiting for a database thread")
+                    .register(registry);
+
+            Gauge.builder("user.idempotency.keys", idempotencyStore, IdempotencyStore::size)
+                    .register(registry);
+            FunctionCounter.builder("user.idempotency.replays", idempotencyStore, IdempotencyStore::getReplays)
+                    .description("Creates answered from a recorded response")
+                    .register(registry);
+        };
+    }
+}
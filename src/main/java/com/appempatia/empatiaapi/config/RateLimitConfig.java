@@ -0,0 +1,44 @@
+package com.appempatia.empatiaapi.config;
+
+import com.appempatia.empatiaapi.api.filter.RateLimitFilter;
+import com.appempatia.empatiaapi.api.filter.TokenBucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.Set;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "app.rate-limit.enabled", havingValue = "true")
+public class RateLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+            MeterRegistry registry,
+            @Value("${app.rate-limit.reads.per-second:50}") double readsPerSecond,
+            @Value("${app.rate-limit.reads.burst:100}") int readBurst,
+            @Value("${app.rate-limit.writes.per-second:5}") double writesPerSecond,
+            @Value("${app.rate-limit.writes.burst:10}") int writeBurst,
+            @Value("${app.rate-limit.max-clients:100000}") long maxClients,
+            @Value("${app.rate-limit.key-header:}") String keyHeader,
+            @Value("${app.rate-limit.trusted-proxies:}") Set<String> trustedProxies) {
+        RateLimitFilter filter = new RateLimitFilter(
+                new TokenBucket(readsPerSecond, readBurst, maxClients),
+                new TokenBucket(writesPerSecond, writeBurst, maxClients),
+                keyHeader,
+                trustedProxies,
+                registry);
+
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+
+        return registration;
+    }
+}
@@ -0,0 +1,100 @@
+package com.appempatia.empatiaapi.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Configuration
+public class StartupConfig {
+
+    private static final int SLOWEST_BEANS = 10;
+
+    private final boolean timeline;
+    private final boolean exitOnReady;
+
+    public StartupConfig(@Value("${app.startup.timeline:false}") boolean timeline,
+                         @Value("${app.startup.exit-on-ready:false}") boolean exitOnReady) {
+        this.timeline = timeline;
+        this.exitOnReady = exitOnReady;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void reportTimeline(ApplicationReadyEvent event) {
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if(!timeline || !(startup instanceof BufferingApplicationStartup)){
+            return;
+        }
+
+        List<StartupTimeline.TimelineEvent> events = ((BufferingApplicationStartup) startup).getBufferedTimeline().getEvents();
+
+        Map<Long, Long> parents = new HashMap<>();
+        events.forEach(step -> parents.put(step.getStartupStep().getId(), step.getStartupStep().getParentId()));
+
+        Map<String, Duration> phases = new LinkedHashMap<>();
+        events.stream()
+                .filter(step -> depth(parents, step.getStartupStep().getId()) <= 1)
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getStartTime))
+                .forEach(step -> phases.merge(step.getStartupStep().getName(), step.getDuration(), Duration::plus));
+
+        String slowestBeans = events.stream()
+                .filter(step -> "spring.beans.instantiate".equals(step.getStartupStep().getName()))
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(SLOWEST_BEANS)
+                .map(step -> tag(step.getStartupStep(), "beanName") + " " + step.getDuration().toMillis() + " ms")
+                .collect(Collectors.joining("\n  "));
+
+        log.info("Startup timeline ({} steps):\n  {}\nSlowest beans:\n  {}", events.size(),
+                phases.entrySet().stream()
+                        .map(phase -> phase.getKey() + " " + phase.getValue().toMillis() + " ms")
+                        .collect(Collectors.joining("\n  ")),
+                slowestBeans);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void exitOnReady(ApplicationReadyEvent event) {
+        if(exitOnReady){
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+
+    private int depth(Map<Long, Long> parents, long id) {
+        int depth = 0;
+        Long parent = parents.get(id);
+        while(parent != null && depth <= 1){
+            depth++;
+            parent = parents.get(parent);
+        }
+
+        return depth;
+    }
+
+    private String tag(StartupStep step, String key) {
+        for(StartupStep.Tag tag : step.getTags()){
+            if(key.equals(tag.getKey())){
+                return tag.getValue();
+            }
+        }
+
+        return "?";
+    }
+}
@@ -0,0 +1,17 @@
+package com.appempatia.empatiaapi.config;
+
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ApplicationListener;
+
+public class StartupTimelineListener implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+
+    private static final int STARTUP_STEPS = 4096;
+
+    @Override
+    public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+        if(event.getEnvironment().getProperty("app.startup.timeline", Boolean.class, false)){
+            event.getSpringApplication().setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+        }
+    }
+}
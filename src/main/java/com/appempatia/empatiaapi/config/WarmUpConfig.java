@@ -0,0 +1,65 @@
+package com.appempatia.empatiaapi.config;
+
+import com.appempatia.empatiaapi.service.support.EmailFilter;
+import com.appempatia.empatiaapi.service.support.PasswordHasher;
+import com.appempatia.empatiaapi.service.support.UserCounter;
+import com.appempatia.empatiaapi.service.support.UserSearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.concurrent.CompletableFuture;
+
+@Slf4j
+@Configuration
+public class WarmUpConfig {
+
+    private final ObjectProvider<PasswordHasher> passwordHasher;
+    private final ObjectProvider<EmailFilter> emailFilter;
+    private final ObjectProvider<UserCounter> userCounter;
+    private final ObjectProvider<UserSearchIndex> searchIndex;
+    private final boolean background;
+
+    public WarmUpConfig(ObjectProvider<PasswordHasher> passwordHasher,
+                        ObjectProvider<EmailFilter> emailFilter,
+                        ObjectProvider<UserCounter> userCounter,
+                        ObjectProvider<UserSearchIndex> searchIndex,
+                        @Value("${app.startup.background-warmup:false}") boolean background) {
+        this.passwordHasher = passwordHasher;
+        this.emailFilter = emailFilter;
+        this.userCounter = userCounter;
+        this.searchIndex = searchIndex;
+        this.background = background;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)
+    public void warmUp() {
+        if(!background){
+            runWarmUps();
+            return;
+        }
+
+        CompletableFuture.runAsync(this::runWarmUps).whenComplete((ignored, ex) -> {
+            if(ex != null){
+                log.warn("Background warm-up failed", ex);
+            }
+        });
+    }
+
+    private void runWarmUps() {
+        long start = System.currentTimeMillis();
+
+        passwordHasher.ifAvailable(PasswordHasher::calibrate);
+        emailFilter.ifAvailable(EmailFilter::warmUp);
+        userCounter.ifAvailable(UserCounter::warmUp);
+        searchIndex.ifAvailable(UserSearchIndex::warmUp);
+
+        log.info("Warm-up finished in {} ms", System.currentTimeMillis() - start);
+    }
+}
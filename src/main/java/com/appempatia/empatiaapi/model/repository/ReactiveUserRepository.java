@@ -0,0 +1,183 @@
+package com.appempatia.empatiaapi.model.repository;
+
+import com.appempatia.empatiaapi.api.exception.BusinessException;
+import com.appempatia.empatiaapi.model.entity.User;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Repository
+@Profile("reactive")
+public class ReactiveUserRepository {
+
+    private static final String SELECT = "select id, name, email, password, role, cellphone, version from user";
+    private static final char ESCAPE = '\\';
+    private static final Map<String, String> SORTABLE = new HashMap<>();
+
+    static {
+        SORTABLE.put("id", "id");
+        SORTABLE.put("name", "name");
+        SORTABLE.put("email", "email");
+        SORTABLE.put("role", "role");
+        SORTABLE.put("cellphone", "cellphone");
+    }
+
+    private final ConnectionPool pool;
+    private final DatabaseClient client;
+
+    public ReactiveUserRepository(@Value("${app.r2dbc.url}") String url,
+                                  @Value("${app.r2dbc.pool.initial-size:2}") int initialSize,
+                                  @Value("${app.r2dbc.pool.max-size:10}") int maxSize) {
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(url))
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .build());
+        this.client = DatabaseClient.create(pool);
+    }
+
+    public Mono<User> findById(Long id) {
+        return client.sql(SELECT + " where id = :id")
+                .bind("id", id)
+                .map(this::toUser)
+                .one()
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Flux<User> findAll(User filter, Pageable pageable) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        StringBuilder sql = new StringBuilder(SELECT);
+        appendWhere(sql, params, filter);
+        appendOrderBy(sql, pageable.getSort());
+
+        if(pageable.isPaged()){
+            sql.append(" limit :limit offset :offset");
+            params.put("limit", pageable.getPageSize());
+            params.put("offset", pageable.getOffset());
+        }
+
+        return bind(client.sql(sql.toString()), params)
+                .map(this::toUser)
+                .all()
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Long> count(User filter) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        StringBuilder sql = new StringBuilder("select count(*) from user");
+        appendWhere(sql, params, filter);
+
+        return bind(client.sql(sql.toString()), params)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @PreDestroy
+    public void close() {
+        pool.dispose();
+    }
+
+    private void appendWhere(StringBuilder sql, Map<String, Object> params, User filter) {
+        if(filter == null){
+            return;
+        }
+
+        if(filter.getId() != null){
+            params.put("id", filter.getId());
+        }
+        addContaining(params, "name", filter.getName());
+        addContaining(params, "email", filter.getEmail());
+        addContaining(params, "cellphone", filter.getCellphone());
+        if(filter.getRole() != 0){
+            params.put("role", filter.getRole());
+        }
+
+        String separator = " where ";
+        for(String column : params.keySet()){
+            sql.append(separator);
+            if(column.equals("id") || column.equals("role")){
+                sql.append(column).append(" = :").append(column);
+            } else {
+                sql.append("lower(").append(column).append(") like :").append(column).append(" escape '\\'");
+            }
+            separator = " and ";
+        }
+    }
+
+    private void appendOrderBy(StringBuilder sql, Sort sort) {
+        if(sort.isUnsorted()){
+            sql.append(" order by id");
+            return;
+        }
+
+        String separator = " order by ";
+        for(Sort.Order order : sort){
+            String column = SORTABLE.get(order.getProperty());
+            if(column == null){
+                throw new BusinessException("Ordenação inválida: " + order.getProperty() + ".");
+            }
+
+            sql.append(separator).append(column).append(order.isDescending() ? " desc" : " asc");
+            separator = ", ";
+        }
+    }
+
+    private void addContaining(Map<String, Object> params, String column, String value) {
+        if(value == null || value.isEmpty()){
+            return;
+        }
+
+        params.put(column, "%" + escape(value.toLowerCase()) + "%");
+    }
+
+    private String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for(int i = 0; i < value.length(); i++){
+            char c = value.charAt(i);
+            if(c == ESCAPE || c == '%' || c == '_'){
+                escaped.append(ESCAPE);
+            }
+            escaped.append(c);
+        }
+
+        return escaped.toString();
+    }
+
+    private DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, Map<String, Object> params) {
+        for(Map.Entry<String, Object> param : params.entrySet()){
+            spec = spec.bind(param.getKey(), param.getValue());
+        }
+
+        return spec;
+    }
+
+    private User toUser(Row row) {
+        Integer role = row.get("role", Integer.class);
+        Long version = row.get("version", Long.class);
+
+        return User.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .email(row.get("email", String.class))
+                .password(row.get("password", String.class))
+                .role(role == null ? 0 : role)
+                .cellphone(row.get("cellphone", String.class))
+                .version(version == null ? 0 : version)
+                .build();
+    }
+}
@@ -2,8 +2,65 @@ package com.appempatia.empatiaapi.model.repository;
 
 import com.appempatia.empatiaapi.model.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface UserRepository extends JpaRepository<User,Long> {
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+public interface UserRepository extends JpaRepository<User,Long>, UserRepositoryCustom {
 
     boolean existsByEmail(String email);
+
+    @Query("select u.version from User u where u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Modifying
+    @Query("delete from User u where u.id = :id")
+    int deleteUserById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.name = :#{#user.name}, u.email = :#{#user.email}, u.password = :#{#user.password}, " +
+            "u.role = :#{#user.role}, u.cellphone = :#{#user.cellphone}, u.version = u.version + 1 where u.id = :id")
+    int updateById(@Param("id") Long id, @Param("user") User user);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.name = :#{#user.name}, u.email = :#{#user.email}, u.password = :#{#user.password}, " +
+            "u.role = :#{#user.role}, u.cellphone = :#{#user.cellphone}, u.version = u.version + 1 " +
+            "where u.id = :id and u.version = :version")
+    int updateByIdAndVersion(@Param("id") Long id, @Param("version") long version, @Param("user") User user);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.name = :#{#user.name}, u.email = :#{#user.email}, " +
+            "u.role = :#{#user.role}, u.cellphone = :#{#user.cellphone}, u.version = u.version + 1 where u.id = :id")
+    int updateProfileById(@Param("id") Long id, @Param("user") User user);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.name = :#{#user.name}, u.email = :#{#user.email}, " +
+            "u.role = :#{#user.role}, u.cellphone = :#{#user.cellphone}, u.version = u.version + 1 " +
+            "where u.id = :id and u.version = :version")
+    int updateProfileByIdAndVersion(@Param("id") Long id, @Param("version") long version, @Param("user") User user);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.email from User u")
+    Stream<String> streamAllEmails();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.id, u.name, u.email, u.cellphone, u.role from User u")
+    Stream<Object[]> streamSearchFields();
 }
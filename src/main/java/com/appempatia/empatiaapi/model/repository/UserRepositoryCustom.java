@@ -0,0 +1,17 @@
+package com.appempatia.empatiaapi.model.repository;
+
+import com.appempatia.empatiaapi.model.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface UserRepositoryCustom {
+
+    List<User> findAfter(User filter, Long afterId, int limit);
+
+    Slice<User> findSlice(User filter, Pageable pageable);
+
+    long forEachMatching(User filter, int fetchSize, Consumer<User> action);
+}
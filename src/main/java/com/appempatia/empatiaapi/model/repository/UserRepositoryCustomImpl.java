@@ -0,0 +1,140 @@
+package com.appempatia.empatiaapi.model.repository;
+
+import com.appempatia.empatiaapi.model.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final char ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<User> findAfter(User filter, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<User> query = cb.createQuery(User.class);
+        Root<User> root = query.from(User.class);
+
+        List<Predicate> predicates = filterPredicates(filter, cb, root);
+        if(afterId != null){
+            predicates.add(cb.greaterThan(root.<Long>get("id"), afterId));
+        }
+
+        query.select(root)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Slice<User> findSlice(User filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<User> query = cb.createQuery(User.class);
+        Root<User> root = query.from(User.class);
+
+        query.select(root).where(filterPredicates(filter, cb, root).toArray(new Predicate[0]));
+        if(pageable.getSort().isSorted()){
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        TypedQuery<User> typedQuery = entityManager.createQuery(query);
+        if(pageable.isUnpaged()){
+            return new SliceImpl<>(typedQuery.getResultList(), pageable, false);
+        }
+
+        List<User> rows = typedQuery
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<User> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public long forEachMatching(User filter, int fetchSize, Consumer<User> action) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<User> query = cb.createQuery(User.class);
+        Root<User> root = query.from(User.class);
+
+        query.select(root)
+                .where(filterPredicates(filter, cb, root).toArray(new Predicate[0]))
+                .orderBy(cb.asc(root.get("id")));
+
+        long count = 0;
+        try (Stream<User> users = entityManager.createQuery(query)
+                .setHint("org.hibernate.fetchSize", fetchSize)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream()) {
+            Iterator<User> iterator = users.iterator();
+            while(iterator.hasNext()){
+                User user = iterator.next();
+                action.accept(user);
+                entityManager.detach(user);
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    private List<Predicate> filterPredicates(User filter, CriteriaBuilder cb, Root<User> root) {
+        List<Predicate> predicates = new ArrayList<>();
+        if(filter == null){
+            return predicates;
+        }
+
+        addContaining(predicates, cb, root, "name", filter.getName());
+        addContaining(predicates, cb, root, "email", filter.getEmail());
+        addContaining(predicates, cb, root, "cellphone", filter.getCellphone());
+
+        if(filter.getRole() != 0){
+            predicates.add(cb.equal(root.get("role"), filter.getRole()));
+        }
+
+        return predicates;
+    }
+
+    private void addContaining(List<Predicate> predicates, CriteriaBuilder cb, Root<User> root, String attribute, String value) {
+        if(value == null || value.isEmpty()){
+            return;
+        }
+
+        String pattern = "%" + escape(value.toLowerCase()) + "%";
+        predicates.add(cb.like(cb.lower(root.<String>get(attribute)), pattern, ESCAPE));
+    }
+
+    private String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for(int i = 0; i < value.length(); i++){
+            char c = value.charAt(i);
+            if(c == ESCAPE || c == '%' || c == '_'){
+                escaped.append(ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,22 @@
+package com.appempatia.empatiaapi.service;
+
+import com.appempatia.empatiaapi.model.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+public interface ReactiveUserService {
+    Mono<User> getById(Long id);
+
+    Mono<Page<User>> find(User filter, Pageable pageRequest);
+
+    Mono<User> save(User user);
+
+    Mono<User> update(Long id, User user);
+
+    Mono<User> patch(Long id, Map<String, Object> changes);
+
+    Mono<Boolean> deleteById(Long id);
+}
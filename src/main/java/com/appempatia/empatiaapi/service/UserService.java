@@ -3,17 +3,38 @@ package com.appempatia.empatiaapi.service;
 import com.appempatia.empatiaapi.model.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface UserService {
-    User save(User any);
+    CompletableFuture<User> save(User any);
+
+    Map<Integer, String> saveAll(List<User> users);
 
     Optional<User> getById(Long id);
 
-    void delete(User user);
+    Optional<Long> findVersion(Long id);
+
+    boolean deleteById(Long id);
+
+    CompletableFuture<Optional<User>> update(Long id, User user);
+
+    CompletableFuture<Optional<User>> update(Long id, long version, User user);
 
-    User update(User user);
+    CompletableFuture<Optional<User>> patch(Long id, Map<String, Object> changes);
+
+    CompletableFuture<Optional<User>> patch(Long id, long version, Map<String, Object> changes);
 
     Page<User> find(User any, Pageable pageRequest);
+
+    Slice<User> findSlice(User filter, Pageable pageRequest);
+
+    Slice<User> findAfter(User filter, Long afterId, int size);
+
+    long export(User filter, Consumer<User> consumer);
 }
@@ -0,0 +1,89 @@
+package com.appempatia.empatiaapi.service.impl;
+
+import com.appempatia.empatiaapi.model.entity.User;
+import com.appempatia.empatiaapi.model.repository.ReactiveUserRepository;
+import com.appempatia.empatiaapi.service.ReactiveUserService;
+import com.appempatia.empatiaapi.service.UserService;
+import com.appempatia.empatiaapi.service.support.UserCache;
+import com.appempatia.empatiaapi.service.support.UserCounter;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+
+@Service
+@Profile("reactive")
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+
+    private ReactiveUserRepository repository;
+    private UserCache userCache;
+    private UserCounter userCounter;
+    private UserService userService;
+
+    public ReactiveUserServiceImpl(ReactiveUserRepository repository, UserCache userCache, UserCounter userCounter,
+                                   UserService userService) {
+        this.repository = repository;
+        this.userCache = userCache;
+        this.userCounter = userCounter;
+        this.userService = userService;
+    }
+
+    @Override
+    public Mono<User> getById(Long id) {
+        return Mono.justOrEmpty(userCache.getIfPresent(id))
+                .switchIfEmpty(Mono.defer(() -> repository.findById(id).doOnNext(userCache::put)));
+    }
+
+    @Override
+    public Mono<Page<User>> find(User filter, Pageable pageRequest) {
+        Mono<Long> total = isUnfiltered(filter) && userCounter.isReady()
+                ? Mono.just(userCounter.get())
+                : repository.count(filter);
+
+        return Mono.zip(repository.findAll(filter, pageRequest).collectList(), total)
+                .<Page<User>>map(result -> new PageImpl<>(result.getT1(), pageRequest, result.getT2()));
+    }
+
+    @Override
+    public Mono<User> save(User user) {
+        return Mono.defer(() -> Mono.fromFuture(userService.save(user)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<User> update(Long id, User user) {
+        return Mono.defer(() -> Mono.fromFuture(userService.update(id, user)))
+                .flatMap(updated -> Mono.justOrEmpty(updated))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<User> patch(Long id, Map<String, Object> changes) {
+        return Mono.defer(() -> Mono.fromFuture(userService.patch(id, changes)))
+                .flatMap(patched -> Mono.justOrEmpty(patched))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Boolean> deleteById(Long id) {
+        return Mono.fromCallable(() -> userService.deleteById(id))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private boolean isUnfiltered(User filter) {
+        return filter.getId() == null
+                && isEmpty(filter.getName())
+                && isEmpty(filter.getEmail())
+                && isEmpty(filter.getCellphone())
+                && filter.getRole() == 0;
+    }
+
+    private boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+}
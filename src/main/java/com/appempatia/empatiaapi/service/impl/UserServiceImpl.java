@@ -4,64 +4,466 @@ import com.appempatia.empatiaapi.api.exception.BusinessException;
 import com.appempatia.empatiaapi.model.entity.User;
 import com.appempatia.empatiaapi.model.repository.UserRepository;
 import com.appempatia.empatiaapi.service.UserService;
+import com.appempatia.empatiaapi.service.support.EmailFilter;
+import com.appempatia.empatiaapi.service.support.PasswordHasher;
+import com.appempatia.empatiaapi.service.support.UserCache;
+import com.appempatia.empatiaapi.service.support.UserCounter;
+import com.appempatia.empatiaapi.service.support.UserSearchIndex;
+import com.appempatia.empatiaapi.service.support.UserWriteExecutor;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 @Service
 public class UserServiceImpl implements UserService {
+    private static final int EMAIL_QUERY_CHUNK = 1000;
+    private static final int EXPORT_FETCH_SIZE = 500;
+
     private UserRepository repository;
+    private EmailFilter emailFilter;
+    private UserCounter userCounter;
+    private UserSearchIndex searchIndex;
+    private UserCache userCache;
+    private PasswordHasher passwordHasher;
+    private TransactionTemplate transactionTemplate;
+    private Executor databaseExecutor;
 
-    public UserServiceImpl(UserRepository repository) {
+    public UserServiceImpl(UserRepository repository, EmailFilter emailFilter, UserCounter userCounter,
+                           UserSearchIndex searchIndex, UserCache userCache, PasswordHasher passwordHasher,
+                           PlatformTransactionManager transactionManager, UserWriteExecutor writeExecutor) {
         this.repository = repository;
+        this.emailFilter = emailFilter;
+        this.userCounter = userCounter;
+        this.searchIndex = searchIndex;
+        this.userCache = userCache;
+        this.passwordHasher = passwordHasher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.databaseExecutor = writeExecutor::execute;
     }
 
     @Override
-    public User save(User user) {
-        if(repository.existsByEmail(user.getEmail())){
-            throw  new BusinessException("E-mail já cadastrado.");
+    @Timed("user.service")
+    public CompletableFuture<User> save(User user) {
+        if(emailFilter.mightContain(user.getEmail())){
+            if(repository.existsByEmail(user.getEmail())){
+                throw new BusinessException("E-mail já cadastrado.");
+            }
+
+            emailFilter.falsePositive();
         }
 
-        return repository.save(user);
+        return passwordHasher.hash(user.getPassword()).thenApplyAsync(hash -> {
+            user.setPassword(hash);
+
+            try {
+                User saved = repository.saveAndFlush(user);
+                emailFilter.put(saved.getEmail());
+                userCounter.increment();
+                searchIndex.put(saved);
+                userCache.put(saved);
+
+                return saved;
+            } catch (DataIntegrityViolationException ex) {
+                throw new BusinessException("E-mail já cadastrado.");
+            }
+        }, databaseExecutor);
     }
 
     @Override
+    @Timed("user.service")
+    public Map<Integer, String> saveAll(List<User> users) {
+        Map<Integer, String> rejected = new TreeMap<>();
+        Set<String> existing = findExistingEmails(users);
+        Set<String> seen = new HashSet<>();
+        List<User> accepted = new ArrayList<>(users.size());
+
+        for(int i = 0; i < users.size(); i++){
+            User user = users.get(i);
+            if(existing.contains(user.getEmail()) || !seen.add(user.getEmail())){
+                rejected.put(i, "E-mail já cadastrado.");
+            } else {
+                accepted.add(user);
+            }
+        }
+
+        List<String> passwords = new ArrayList<>(accepted.size());
+        accepted.forEach(user -> passwords.add(user.getPassword()));
+
+        List<String> hashes = passwordHasher.hashAll(passwords);
+        for(int i = 0; i < accepted.size(); i++){
+            accepted.get(i).setPassword(hashes.get(i));
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                repository.saveAll(accepted);
+                repository.flush();
+            });
+        } catch (DataIntegrityViolationException ex) {
+            throw new BusinessException("E-mail já cadastrado.");
+        }
+
+        for(User user : accepted){
+            emailFilter.put(user.getEmail());
+            searchIndex.put(user);
+        }
+        userCounter.add(accepted.size());
+
+        return rejected;
+    }
+
+    @Override
+    @Timed("user.service")
     public Optional<User> getById(Long id) {
-        return this.repository.findById(id);
+        return userCache.get(id, key -> this.repository.findById(key).orElse(null));
+    }
+
+    @Override
+    @Timed("user.service")
+    public Optional<Long> findVersion(Long id) {
+        Optional<User> cached = userCache.getIfPresent(id);
+        if(cached.isPresent()){
+            return Optional.of(cached.get().getVersion());
+        }
+
+        return repository.findVersionById(id);
     }
 
     @Override
-    public void delete(User user) {
-        if(user == null || user.getId() == null){
+    @Timed("user.service")
+    @Transactional
+    public boolean deleteById(Long id) {
+        if(id == null){
             throw new IllegalArgumentException("User id can't be null");
         }
 
-        this.repository.delete(user);
+        if(this.repository.deleteUserById(id) == 0){
+            return false;
+        }
+
+        afterCommit(() -> {
+            emailFilter.markStale();
+            userCounter.decrement();
+            searchIndex.remove(id);
+            userCache.evict(id);
+        });
+
+        return true;
     }
 
     @Override
-    public User update(User user) {
-        if(user == null || user.getId() == null){
+    @Timed("user.service")
+    public CompletableFuture<Optional<User>> update(Long id, User user) {
+        if(id == null){
             throw new IllegalArgumentException("User id can't be null");
         }
 
-        return this.repository.save(user);
+        return hashIfPresent(user.getPassword()).thenApplyAsync(hash -> {
+            user.setPassword(hash);
+
+            int updated;
+            try {
+                updated = hash == null
+                        ? this.repository.updateProfileById(id, user)
+                        : this.repository.updateById(id, user);
+            } catch (DataIntegrityViolationException ex) {
+                throw new BusinessException("E-mail já cadastrado.");
+            }
+
+            if(updated == 0){
+                return Optional.empty();
+            }
+
+            user.setId(id);
+            emailFilter.put(user.getEmail());
+            searchIndex.put(user);
+            userCache.evict(id);
+
+            return Optional.of(user);
+        }, databaseExecutor);
     }
 
     @Override
+    @Timed("user.service")
+    public CompletableFuture<Optional<User>> update(Long id, long version, User user) {
+        if(id == null){
+            throw new IllegalArgumentException("User id can't be null");
+        }
+
+        return hashIfPresent(user.getPassword()).thenApplyAsync(hash -> {
+            user.setPassword(hash);
+
+            int updated;
+            try {
+                updated = hash == null
+                        ? this.repository.updateProfileByIdAndVersion(id, version, user)
+                        : this.repository.updateByIdAndVersion(id, version, user);
+            } catch (DataIntegrityViolationException ex) {
+                throw new BusinessException("E-mail já cadastrado.");
+            }
+
+            if(updated == 0){
+                if(!this.repository.findVersionById(id).isPresent()){
+                    return Optional.empty();
+                }
+
+                throw new OptimisticLockingFailureException("User " + id + " is no longer at version " + version);
+            }
+
+            user.setId(id);
+            user.setVersion(version + 1);
+            emailFilter.put(user.getEmail());
+            searchIndex.put(user);
+            if(hash == null){
+                userCache.evict(id);
+            } else {
+                userCache.put(user);
+            }
+
+            return Optional.of(user);
+        }, databaseExecutor);
+    }
+
+    @Override
+    @Timed("user.service")
+    public CompletableFuture<Optional<User>> patch(Long id, Map<String, Object> changes) {
+        return patch(id, null, changes);
+    }
+
+    @Override
+    @Timed("user.service")
+    public CompletableFuture<Optional<User>> patch(Long id, long version, Map<String, Object> changes) {
+        return patch(id, Long.valueOf(version), changes);
+    }
+
+    private CompletableFuture<Optional<User>> patch(Long id, Long version, Map<String, Object> changes) {
+        if(id == null){
+            throw new IllegalArgumentException("User id can't be null");
+        }
+
+        CompletableFuture<Map<String, Object>> hashed = !changes.containsKey("password")
+                ? CompletableFuture.completedFuture(changes)
+                : passwordHasher.hash(requiredText("password", changes.get("password"))).thenApply(hash -> {
+                    Map<String, Object> copy = new HashMap<>(changes);
+                    copy.put("password", hash);
+                    return copy;
+                });
+
+        return hashed.thenApplyAsync(applied -> transactionTemplate.execute(status -> patchInTransaction(id, version, applied)),
+                databaseExecutor);
+    }
+
+    private Optional<User> patchInTransaction(Long id, Long version, Map<String, Object> changes) {
+        Optional<User> found = this.repository.findById(id);
+        if(!found.isPresent()){
+            return Optional.empty();
+        }
+
+        User user = found.get();
+        if(version != null && user.getVersion() != version){
+            throw new OptimisticLockingFailureException("User " + id + " is no longer at version " + version);
+        }
+
+        changes.forEach((field, value) -> apply(user, field, value));
+
+        try {
+            this.repository.flush();
+        } catch (DataIntegrityViolationException ex) {
+            throw new BusinessException("E-mail já cadastrado.");
+        }
+
+        afterCommit(() -> {
+            emailFilter.put(user.getEmail());
+            searchIndex.put(user);
+            userCache.put(user);
+        });
+
+        return Optional.of(user);
+    }
+
+    @Override
+    @Timed("user.service")
     public Page<User> find(User filter, Pageable pageRequest) {
-        Example<User> example = Example.of(filter,
-                ExampleMatcher
-                        .matching()
-                        .withIgnoreCase()
-                        .withIgnoreNullValues()
-                        .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
-        );
-
-        return repository.findAll(example,pageRequest);
+        if(isUnfiltered(filter) && userCounter.isReady()){
+            Slice<User> slice = repository.findSlice(filter, pageRequest);
+
+            return new PageImpl<>(slice.getContent(), pageRequest, userCounter.get());
+        }
+
+        Sort.Order idOrder = pageRequest.getSort().getOrderFor("id");
+        if(pageRequest.getSort().isUnsorted() || (idOrder != null && pageRequest.getSort().toList().size() == 1)){
+            long[] ids = searchIndex.search(filter);
+            if(ids != null){
+                return pageOf(ids, idOrder != null && idOrder.isDescending(), pageRequest);
+            }
+        }
+
+        ExampleMatcher matcher = ExampleMatcher
+                .matching()
+                .withIgnoreCase()
+                .withIgnoreNullValues()
+                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
+                .withIgnorePaths("version");
+
+        if(filter.getRole() == 0){
+            matcher = matcher.withIgnorePaths("role");
+        }
+
+        return repository.findAll(Example.of(filter, matcher),pageRequest);
+    }
+
+    @Override
+    @Timed("user.service")
+    public Slice<User> findSlice(User filter, Pageable pageRequest) {
+        return repository.findSlice(filter, pageRequest);
+    }
+
+    @Override
+    @Timed("user.service")
+    public Slice<User> findAfter(User filter, Long afterId, int size) {
+        List<User> rows = repository.findAfter(filter, afterId, size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<User> content = hasNext ? rows.subList(0, size) : rows;
+
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
+    }
+
+    @Override
+    @Timed("user.service")
+    @Transactional(readOnly = true)
+    public long export(User filter, Consumer<User> consumer) {
+        return repository.forEachMatching(filter, EXPORT_FETCH_SIZE, consumer);
+    }
+
+    private void apply(User user, String field, Object value) {
+        switch (field) {
+            case "name":
+                user.setName(requiredText(field, value));
+                break;
+            case "email":
+                user.setEmail(requiredText(field, value));
+                break;
+            case "password":
+                user.setPassword((String) value);
+                break;
+            case "cellphone":
+                user.setCellphone(requiredText(field, value));
+                break;
+            case "role":
+                if(!(value instanceof Integer)){
+                    throw new BusinessException("O campo role deve ser um número.");
+                }
+                user.setRole((Integer) value);
+                break;
+            default:
+                throw new BusinessException("O campo " + field + " não pode ser alterado.");
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private CompletableFuture<String> hashIfPresent(String rawPassword) {
+        if(rawPassword == null || rawPassword.isEmpty()){
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return passwordHasher.hash(rawPassword);
+    }
+
+    private String requiredText(String field, Object value) {
+        if(!(value instanceof String) || ((String) value).isEmpty()){
+            throw new BusinessException("O campo " + field + " não pode ser vazio.");
+        }
+
+        return (String) value;
+    }
+
+    private Set<String> findExistingEmails(List<User> users) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for(User user : users){
+            if(user.getEmail() != null && emailFilter.mightContain(user.getEmail())){
+                distinct.add(user.getEmail());
+            }
+        }
+
+        List<String> candidates = new ArrayList<>(distinct);
+
+        Set<String> existing = new HashSet<>();
+        for(int from = 0; from < candidates.size(); from += EMAIL_QUERY_CHUNK){
+            List<String> chunk = candidates.subList(from, Math.min(candidates.size(), from + EMAIL_QUERY_CHUNK));
+            existing.addAll(repository.findExistingEmails(chunk));
+        }
+
+        return existing;
+    }
+
+    private Page<User> pageOf(long[] ids, boolean descending, Pageable pageRequest) {
+        int from = pageRequest.isPaged() ? (int) Math.min(ids.length, pageRequest.getOffset()) : 0;
+        int to = pageRequest.isPaged() ? Math.min(ids.length, from + pageRequest.getPageSize()) : ids.length;
+
+        List<Long> pageIds = new ArrayList<>(to - from);
+        for(int i = from; i < to; i++){
+            pageIds.add(descending ? ids[ids.length - 1 - i] : ids[i]);
+        }
+
+        List<User> content = new ArrayList<>(repository.findAllById(pageIds));
+        content.sort(descending ? Comparator.comparing(User::getId).reversed() : Comparator.comparing(User::getId));
+
+        return new PageImpl<>(content, pageRequest, ids.length);
+    }
+
+    private boolean isUnfiltered(User filter) {
+        return filter.getId() == null
+                && isEmpty(filter.getName())
+                && isEmpty(filter.getEmail())
+                && isEmpty(filter.getPassword())
+                && isEmpty(filter.getCellphone())
+                && filter.getRole() == 0;
+    }
+
+    private boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
     }
 }
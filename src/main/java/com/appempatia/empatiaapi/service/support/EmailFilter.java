@@ -0,0 +1,208 @@
+package com.appempatia.empatiaapi.service.support;
+
+import com.appempatia.empatiaapi.model.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+public class EmailFilter {
+
+    private final UserRepository repository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int numBits;
+    private final int numHashes;
+    private final long rebuildThreshold;
+
+    private volatile AtomicLongArray bits;
+    private volatile AtomicLongArray building;
+    private volatile boolean ready;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder staleEntries = new LongAdder();
+
+    public EmailFilter(UserRepository repository,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${app.users.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                       @Value("${app.users.email-filter.fpp:0.01}") double fpp) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        long optimalBits = (long) (-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.numBits = (int) Math.max(64, Math.min(optimalBits, Integer.MAX_VALUE - 63));
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+        this.rebuildThreshold = Math.max(1, expectedInsertions / 20);
+        this.bits = newBits();
+    }
+
+    public boolean mightContain(String email) {
+        if(!ready || email == null){
+            return true;
+        }
+
+        queries.increment();
+
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        AtomicLongArray current = bits;
+
+        for(int i = 1; i <= numHashes; i++){
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+            if((current.get(bit >>> 6) & (1L << bit)) == 0){
+                negatives.increment();
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public void put(String email) {
+        if(email == null){
+            return;
+        }
+
+        set(bits, email);
+
+        AtomicLongArray next = building;
+        if(next != null){
+            set(next, email);
+        }
+    }
+
+    public void falsePositive() {
+        if(ready){
+            falsePositives.increment();
+        }
+    }
+
+    public void markStale() {
+        staleEntries.increment();
+
+        if(staleEntries.sum() >= rebuildThreshold && rebuilding.compareAndSet(false, true)){
+            CompletableFuture.runAsync(this::rebuild);
+        }
+    }
+
+    public void warmUp() {
+        if(rebuilding.compareAndSet(false, true)){
+            rebuild();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long getQueries() {
+        return queries.sum();
+    }
+
+    public long getNegatives() {
+        return negatives.sum();
+    }
+
+    public long getFalsePositives() {
+        return falsePositives.sum();
+    }
+
+    public long getStaleEntries() {
+        return staleEntries.sum();
+    }
+
+    public double getHitRate() {
+        long total = queries.sum();
+        return total == 0 ? 0 : (double) negatives.sum() / total;
+    }
+
+    public double getFalsePositiveRate() {
+        long fp = falsePositives.sum();
+        long absent = negatives.sum() + fp;
+        return absent == 0 ? 0 : (double) fp / absent;
+    }
+
+    private void rebuild() {
+        try {
+            long start = System.currentTimeMillis();
+            AtomicLongArray next = newBits();
+            building = next;
+            staleEntries.reset();
+
+            Long loaded = transactionTemplate.execute(status -> {
+                long count = 0;
+                try (Stream<String> emails = repository.streamAllEmails()) {
+                    for(String email : (Iterable<String>) emails::iterator){
+                        set(next, email);
+                        count++;
+                    }
+                }
+                return count;
+            });
+
+            bits = next;
+            building = null;
+            ready = true;
+
+            log.info("E-mail filter loaded {} entries in {} ms", loaded, System.currentTimeMillis() - start);
+        } catch (RuntimeException ex) {
+            building = null;
+            log.warn("Could not load e-mail filter, falling back to database checks", ex);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private AtomicLongArray newBits() {
+        return new AtomicLongArray((numBits + 63) >>> 6);
+    }
+
+    private void set(AtomicLongArray target, String email) {
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for(int i = 1; i <= numHashes; i++){
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+            int index = bit >>> 6;
+            long mask = 1L << bit;
+
+            long current;
+            do {
+                current = target.get(index);
+                if((current & mask) != 0){
+                    break;
+                }
+            } while(!target.compareAndSet(index, current, current | mask));
+        }
+    }
+
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for(int i = 0; i < value.length(); i++){
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
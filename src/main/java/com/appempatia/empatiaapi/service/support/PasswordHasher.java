@@ -0,0 +1,169 @@
+package com.appempatia.empatiaapi.service.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    private static final int MAX_STRENGTH = 31;
+    private static final int CALIBRATION_WARM_UP = 5;
+
+    private final ThreadPoolExecutor executor;
+    private final Semaphore batchPermits;
+    private final int minStrength;
+    private final long targetNanos;
+
+    private volatile BCryptPasswordEncoder encoder;
+    private volatile int strength;
+
+    private final LongAdder hashes = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public PasswordHasher(@Value("${app.users.password.threads:0}") int threads,
+                          @Value("${app.users.password.queue-capacity:1000}") int queueCapacity,
+                          @Value("${app.users.password.min-strength:10}") int minStrength,
+                          @Value("${app.users.password.target-latency:250ms}") Duration targetLatency,
+                          @Value("${app.users.password.batch-window:0}") int batchWindow) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }) {
+            @Override
+            public void execute(Runnable command) {
+                super.execute(SqlStatementCounter.propagate(command));
+            }
+        };
+        this.batchPermits = new Semaphore(Math.min(batchWindow > 0 ? batchWindow : poolSize, queueCapacity));
+        this.minStrength = minStrength;
+        this.targetNanos = targetLatency.toNanos();
+        this.encoder = new BCryptPasswordEncoder(minStrength);
+        this.strength = minStrength;
+    }
+
+    public void calibrate() {
+        BCryptPasswordEncoder warmUp = new BCryptPasswordEncoder(4);
+        for(int i = 0; i < CALIBRATION_WARM_UP; i++){
+            warmUp.encode("calibration");
+        }
+
+        BCryptPasswordEncoder candidate = new BCryptPasswordEncoder(minStrength);
+        long start = System.nanoTime();
+        candidate.encode("calibration");
+        long elapsed = System.nanoTime() - start;
+
+        int calibrated = minStrength;
+        while(calibrated < MAX_STRENGTH && elapsed * 2 <= targetNanos){
+            calibrated++;
+            elapsed *= 2;
+        }
+
+        this.encoder = new BCryptPasswordEncoder(calibrated);
+        this.strength = calibrated;
+
+        log.info("Password hashing calibrated to bcrypt strength {} (~{} ms per hash, target {} ms)",
+                calibrated, TimeUnit.NANOSECONDS.toMillis(elapsed), TimeUnit.NANOSECONDS.toMillis(targetNanos));
+    }
+
+    public CompletableFuture<String> hash(String rawPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> encode(rawPassword), executor);
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw ex;
+        }
+    }
+
+    public List<String> hashAll(List<String> rawPasswords) {
+        List<CompletableFuture<String>> futures = new ArrayList<>(rawPasswords.size());
+        for(String rawPassword : rawPasswords){
+            batchPermits.acquireUninterruptibly();
+
+            CompletableFuture<String> future;
+            try {
+                future = CompletableFuture.supplyAsync(() -> encode(rawPassword), executor);
+            } catch (RejectedExecutionException ex) {
+                batchPermits.release();
+                rejected.increment();
+                throw ex;
+            }
+
+            future.whenComplete((hash, ex) -> batchPermits.release());
+            futures.add(future);
+        }
+
+        List<String> hashed = new ArrayList<>(futures.size());
+        for(CompletableFuture<String> future : futures){
+            hashed.add(future.join());
+        }
+
+        return hashed;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveThreads() {
+        return executor.getActiveCount();
+    }
+
+    public long getHashes() {
+        return hashes.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getHashTimeNanos() {
+        return hashNanos.sum();
+    }
+
+    public double getAverageHashMillis() {
+        long count = hashes.sum();
+        return count == 0 ? 0 : hashNanos.sum() / (double) count / 1_000_000;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private String encode(String rawPassword) {
+        long start = System.nanoTime();
+        String encoded = encoder.encode(rawPassword);
+
+        hashNanos.add(System.nanoTime() - start);
+        hashes.increment();
+
+        return encoded;
+    }
+}
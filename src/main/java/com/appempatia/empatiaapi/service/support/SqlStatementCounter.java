@@ -0,0 +1,48 @@
+package com.appempatia.empatiaapi.service.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<AtomicInteger> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger counter = CURRENT.get();
+        if(counter != null){
+            counter.incrementAndGet();
+        }
+
+        return sql;
+    }
+
+    public static AtomicInteger current() {
+        return CURRENT.get();
+    }
+
+    public static void bind(AtomicInteger counter) {
+        CURRENT.set(counter);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static Runnable propagate(Runnable task) {
+        AtomicInteger counter = CURRENT.get();
+        if(counter == null){
+            return task;
+        }
+
+        return () -> {
+            bind(counter);
+            try {
+                task.run();
+            } finally {
+                clear();
+            }
+        };
+    }
+}
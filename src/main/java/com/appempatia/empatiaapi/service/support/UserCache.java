@@ -0,0 +1,61 @@
+package com.appempatia.empatiaapi.service.support;
+
+import com.appempatia.empatiaapi.model.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+@Component
+public class UserCache {
+
+    private final Cache<Long, User> cache;
+
+    public UserCache(@Value("${app.users.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${app.users.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<User> get(Long id, Function<Long, User> loader) {
+        User user = cache.get(id, key -> copy(loader.apply(key)));
+
+        return Optional.ofNullable(copy(user));
+    }
+
+    public Optional<User> getIfPresent(Long id) {
+        return Optional.ofNullable(copy(cache.getIfPresent(id)));
+    }
+
+    public void put(User user) {
+        if(user != null && user.getId() != null){
+            cache.put(user.getId(), copy(user));
+        }
+    }
+
+    public void evict(Long id) {
+        if(id != null){
+            cache.invalidate(id);
+        }
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private User copy(User user) {
+        return user == null ? null : user.toBuilder().build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.appempatia.empatiaapi.service.support;
+
+import com.appempatia.empatiaapi.model.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Component
+public class UserCounter {
+
+    private final UserRepository repository;
+
+    private final LongAdder delta = new LongAdder();
+    private volatile long base;
+    private volatile boolean ready;
+
+    public UserCounter(UserRepository repository) {
+        this.repository = repository;
+    }
+
+    public void warmUp() {
+        try {
+            long before = delta.sum();
+            base = repository.count() - before;
+            ready = true;
+        } catch (RuntimeException ex) {
+            log.warn("Could not load user count, falling back to count queries", ex);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long get() {
+        return Math.max(0, base + delta.sum());
+    }
+
+    public void add(long count) {
+        delta.add(count);
+    }
+
+    public void increment() {
+        delta.increment();
+    }
+
+    public void decrement() {
+        delta.decrement();
+    }
+}
@@ -0,0 +1,341 @@
+package com.appempatia.empatiaapi.service.support;
+
+import com.appempatia.empatiaapi.model.entity.User;
+import com.appempatia.empatiaapi.model.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+public class UserSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final long[] NO_IDS = new long[0];
+
+    private final UserRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Row> rows = new HashMap<>();
+    private final Map<Long, PostingList> names = new HashMap<>();
+    private final Map<Long, PostingList> emails = new HashMap<>();
+    private final Map<Long, PostingList> cellphones = new HashMap<>();
+
+    private final Set<Long> removedDuringWarmUp = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+
+    public UserSearchIndex(UserRepository repository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.users.search-index.enabled:true}") boolean enabled) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    public void warmUp() {
+        if(!enabled){
+            return;
+        }
+
+        try {
+            long start = System.currentTimeMillis();
+
+            Long loaded = transactionTemplate.execute(status -> {
+                long count = 0;
+                try (Stream<Object[]> stream = repository.streamSearchFields()) {
+                    for(Object[] fields : (Iterable<Object[]>) stream::iterator){
+                        Long id = (Long) fields[0];
+                        if(removedDuringWarmUp.contains(id)){
+                            continue;
+                        }
+
+                        Row row = new Row((String) fields[1], (String) fields[2], (String) fields[3], (Integer) fields[4]);
+
+                        lock.writeLock().lock();
+                        try {
+                            if(!rows.containsKey(id)){
+                                add(id, row);
+                            }
+                        } finally {
+                            lock.writeLock().unlock();
+                        }
+                        count++;
+                    }
+                }
+                return count;
+            });
+
+            ready = true;
+            removedDuringWarmUp.clear();
+
+            log.info("User search index loaded {} users in {} ms", loaded, System.currentTimeMillis() - start);
+        } catch (RuntimeException ex) {
+            log.warn("Could not load user search index, falling back to database search", ex);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rows.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(User user) {
+        if(!enabled || user == null || user.getId() == null){
+            return;
+        }
+
+        Row row = new Row(user.getName(), user.getEmail(), user.getCellphone(), user.getRole());
+
+        lock.writeLock().lock();
+        try {
+            Row previous = rows.get(user.getId());
+            if(previous != null){
+                remove(user.getId(), previous);
+            }
+            add(user.getId(), row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        if(!enabled || id == null){
+            return;
+        }
+
+        if(!ready){
+            removedDuringWarmUp.add(id);
+        }
+
+        lock.writeLock().lock();
+        try {
+            Row previous = rows.get(id);
+            if(previous != null){
+                remove(id, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long[] search(User filter) {
+        if(!ready || filter == null || filter.getId() != null || !isEmpty(filter.getPassword())){
+            return null;
+        }
+
+        String name = normalize(filter.getName());
+        String email = normalize(filter.getEmail());
+        String cellphone = normalize(filter.getCellphone());
+
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>();
+            if(!collect(lists, names, name) || !collect(lists, emails, email) || !collect(lists, cellphones, cellphone)){
+                return NO_IDS;
+            }
+
+            if(lists.isEmpty()){
+                return null;
+            }
+
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            long[] candidates = lists.get(0).toArray();
+            for(int i = 1; i < lists.size() && candidates.length > 0; i++){
+                candidates = lists.get(i).retain(candidates);
+            }
+
+            long[] matches = new long[candidates.length];
+            int size = 0;
+            for(long id : candidates){
+                Row row = rows.get(id);
+                if(row != null && row.matches(name, email, cellphone, filter.getRole())){
+                    matches[size++] = id;
+                }
+            }
+
+            return size == matches.length ? matches : Arrays.copyOf(matches, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean collect(List<PostingList> lists, Map<Long, PostingList> postings, String value) {
+        if(value == null || value.length() < GRAM){
+            return true;
+        }
+
+        for(int i = 0; i + GRAM <= value.length(); i++){
+            PostingList list = postings.get(gram(value, i));
+            if(list == null){
+                return false;
+            }
+            lists.add(list);
+        }
+
+        return true;
+    }
+
+    private void add(Long id, Row row) {
+        rows.put(id, row);
+        index(names, row.name, id, true);
+        index(emails, row.email, id, true);
+        index(cellphones, row.cellphone, id, true);
+    }
+
+    private void remove(Long id, Row row) {
+        rows.remove(id);
+        index(names, row.name, id, false);
+        index(emails, row.email, id, false);
+        index(cellphones, row.cellphone, id, false);
+    }
+
+    private void index(Map<Long, PostingList> postings, String value, long id, boolean add) {
+        if(value == null){
+            return;
+        }
+
+        for(int i = 0; i + GRAM <= value.length(); i++){
+            long gram = gram(value, i);
+            if(add){
+                postings.computeIfAbsent(gram, key -> new PostingList()).add(id);
+            } else {
+                PostingList list = postings.get(gram);
+                if(list != null && list.remove(id) && list.isEmpty()){
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static long gram(String value, int offset) {
+        return ((long) value.charAt(offset) << 32) | ((long) value.charAt(offset + 1) << 16) | value.charAt(offset + 2);
+    }
+
+    private static String normalize(String value) {
+        return isEmpty(value) ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+
+    private static final class Row {
+        final String name;
+        final String email;
+        final String cellphone;
+        final int role;
+
+        Row(String name, String email, String cellphone, int role) {
+            this.name = normalize(name);
+            this.email = normalize(email);
+            this.cellphone = normalize(cellphone);
+            this.role = role;
+        }
+
+        boolean matches(String name, String email, String cellphone, int role) {
+            return contains(this.name, name)
+                    && contains(this.email, email)
+                    && contains(this.cellphone, cellphone)
+                    && (role == 0 || this.role == role);
+        }
+
+        private static boolean contains(String value, String part) {
+            return part == null || (value != null && value.contains(part));
+        }
+    }
+
+    private static final class PostingList {
+        long[] ids = new long[4];
+        int size;
+
+        void add(long id) {
+            if(size > 0 && ids[size - 1] < id){
+                grow();
+                ids[size++] = id;
+                return;
+            }
+
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if(position >= 0){
+                return;
+            }
+
+            int insertAt = -position - 1;
+            grow();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if(position < 0){
+                return false;
+            }
+
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+
+        long[] retain(long[] candidates) {
+            long[] result = new long[candidates.length];
+            int count = 0;
+            int from = 0;
+            for(long id : candidates){
+                int position = Arrays.binarySearch(ids, from, size, id);
+                if(position >= 0){
+                    result[count++] = id;
+                    from = position + 1;
+                } else {
+                    from = -position - 1;
+                }
+                if(from >= size){
+                    break;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        private void grow() {
+            if(size == ids.length){
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+create sequence user_seq start with 1 increment by 50;
+
+create table user (
+    id bigint not null,
+    name varchar(255),
+    email varchar(255),
+    password varchar(255),
+    role integer not null,
+    cellphone varchar(255),
+    version bigint not null,
+    primary key (id)
+);
+
+alter table user add constraint uk_user_email unique (email);
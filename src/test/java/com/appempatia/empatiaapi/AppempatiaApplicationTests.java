@@ -1,6 +1,5 @@
 package com.appempatia.empatiaapi;
 
-import javafx.application.Application;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
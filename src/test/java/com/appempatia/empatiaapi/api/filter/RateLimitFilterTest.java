@@ -0,0 +1,83 @@
+package com.appempatia.empatiaapi.api.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimitFilterTest {
+
+    AtomicLong clock = new AtomicLong();
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    RateLimitFilter filter = new RateLimitFilter(
+            new TokenBucket(10, 2, 100, clock::get),
+            new TokenBucket(1, 1, 100, clock::get),
+            "X-Client-Id",
+            Collections.singleton("10.0.0.1"),
+            registry);
+
+    @Test
+    @DisplayName("Should answer 429 with Retry-After once the write budget is spent")
+    public void rejectWritesTest() throws Exception {
+        MockHttpServletResponse first = perform("POST", "jhon");
+        MockHttpServletResponse second = perform("POST", "jhon");
+
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(second.getStatus()).isEqualTo(429);
+        assertThat(second.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(second.getContentAsString(StandardCharsets.UTF_8)).contains("Muitas requisições");
+        assertThat(registry.get("user.api.rate.limit.rejected").tag("budget", "write").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep reads and writes on separate budgets")
+    public void separateBudgetsTest() throws Exception {
+        perform("POST", "jhon");
+
+        assertThat(perform("POST", "jhon").getStatus()).isEqualTo(429);
+        assertThat(perform("GET", "jhon").getStatus()).isEqualTo(200);
+        assertThat(perform("GET", "jhon").getStatus()).isEqualTo(200);
+        assertThat(perform("GET", "jhon").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    @DisplayName("Should limit each client key on its own")
+    public void perClientTest() throws Exception {
+        perform("POST", "jhon");
+
+        assertThat(perform("POST", "jhon").getStatus()).isEqualTo(429);
+        assertThat(perform("POST", "mary").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should ignore the client key header unless it comes from a trusted proxy")
+    public void untrustedKeyHeaderTest() throws Exception {
+        perform("POST", "jhon", "192.168.0.7");
+
+        assertThat(perform("POST", "mary", "192.168.0.7").getStatus()).isEqualTo(429);
+        assertThat(perform("POST", "jhon", "192.168.0.8").getStatus()).isEqualTo(200);
+    }
+
+    private MockHttpServletResponse perform(String method, String client) throws Exception {
+        return perform(method, client, "10.0.0.1");
+    }
+
+    private MockHttpServletResponse perform(String method, String client, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/users");
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader("X-Client-Id", client);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        return response;
+    }
+}
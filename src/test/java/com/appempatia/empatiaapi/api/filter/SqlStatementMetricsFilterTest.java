@@ -0,0 +1,55 @@
+package com.appempatia.empatiaapi.api.filter;
+
+import com.appempatia.empatiaapi.service.support.SqlStatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SqlStatementMetricsFilterTest {
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(registry);
+    SqlStatementCounter inspector = new SqlStatementCounter();
+
+    @Test
+    @DisplayName("Should record how many statements a request issued under its URI template")
+    public void recordStatementsTest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/users/{id}");
+                inspector.inspect("select 1");
+                inspector.inspect("select 2");
+            }
+        }));
+
+        DistributionSummary summary = registry.get("user.api.sql.statements")
+                .tag("method", "GET")
+                .tag("uri", "/api/users/{id}")
+                .summary();
+
+        assertThat(summary.count()).isEqualTo(1);
+        assertThat(summary.totalAmount()).isEqualTo(2);
+        assertThat(SqlStatementCounter.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should not count statements issued outside of a request")
+    public void outsideRequestTest() {
+        assertThat(inspector.inspect("select 1")).isEqualTo("select 1");
+        assertThat(SqlStatementCounter.current()).isNull();
+    }
+}
@@ -0,0 +1,49 @@
+package com.appempatia.empatiaapi.api.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenBucketTest {
+
+    AtomicLong clock = new AtomicLong();
+    TokenBucket bucket = new TokenBucket(10, 3, 100, clock::get);
+
+    @Test
+    @DisplayName("Should allow a burst and then reject telling how long to wait")
+    public void burstTest(){
+        assertThat(bucket.tryAcquire("client")).isZero();
+        assertThat(bucket.tryAcquire("client")).isZero();
+        assertThat(bucket.tryAcquire("client")).isZero();
+
+        assertThat(bucket.tryAcquire("client")).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    @DisplayName("Should refill at the configured rate")
+    public void refillTest(){
+        for(int i = 0; i < 3; i++){
+            bucket.tryAcquire("client");
+        }
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertThat(bucket.tryAcquire("client")).isZero();
+        assertThat(bucket.tryAcquire("client")).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should keep a separate budget per client")
+    public void perClientTest(){
+        for(int i = 0; i < 3; i++){
+            bucket.tryAcquire("jhon");
+        }
+
+        assertThat(bucket.tryAcquire("jhon")).isPositive();
+        assertThat(bucket.tryAcquire("mary")).isZero();
+    }
+}
@@ -0,0 +1,90 @@
+package com.appempatia.empatiaapi.api.idempotency;
+
+import com.appempatia.empatiaapi.api.dto.UserDTO;
+import com.appempatia.empatiaapi.api.exception.BusinessException;
+import com.appempatia.empatiaapi.api.exception.IdempotencyKeyMismatchException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class IdempotencyStoreTest {
+
+    IdempotencyStore store = new IdempotencyStore(new ObjectMapper(), 100, Duration.ofMinutes(1));
+    AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    @DisplayName("Should coalesce a concurrent duplicate onto the in-flight request")
+    public void coalesceInFlightTest(){
+        CompletableFuture<ResponseEntity<UserDTO>> inFlight = new CompletableFuture<>();
+
+        CompletableFuture<ResponseEntity<UserDTO>> first = store.execute("key", createNewUser(), () -> {
+            calls.incrementAndGet();
+            return inFlight;
+        });
+        CompletableFuture<ResponseEntity<UserDTO>> second = store.execute("key", createNewUser(), this::create);
+
+        assertThat(second).isNotDone();
+
+        inFlight.complete(ResponseEntity.status(HttpStatus.CREATED).body(createNewUser()));
+
+        assertThat(first.join().getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(second.join().getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(second.join().getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(store.getReplays()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused with a different request")
+    public void mismatchTest(){
+        store.execute("key", createNewUser(), this::create).join();
+
+        UserDTO other = createNewUser();
+        other.setEmail("mary@dole.com");
+
+        Throwable exception = catchThrowable(() -> store.execute("key", other, this::create));
+
+        assertThat(exception).isInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should forget a key whose request failed so it can be retried")
+    public void retryAfterFailureTest(){
+        Throwable exception = catchThrowable(() -> store.execute("key", createNewUser(), () -> {
+            throw new BusinessException("E-mail já cadastrado.");
+        }));
+
+        store.execute("key", createNewUser(), this::create).join();
+
+        assertThat(exception).isInstanceOf(BusinessException.class);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not accept an empty key")
+    public void invalidKeyTest(){
+        Throwable exception = catchThrowable(() -> store.execute("", createNewUser(), this::create));
+
+        assertThat(exception).isInstanceOf(BusinessException.class).hasMessage("Idempotency-Key inválida.");
+    }
+
+    private CompletableFuture<ResponseEntity<UserDTO>> create(){
+        calls.incrementAndGet();
+
+        return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CREATED).body(createNewUser()));
+    }
+
+    private UserDTO createNewUser() {
+        return UserDTO.builder().name("Jhon Dole").email("jhon@dole.com").password("123456789").role(1).cellphone("99999999999").build();
+    }
+}
@@ -0,0 +1,63 @@
+package com.appempatia.empatiaapi.api.mapper;
+
+import com.appempatia.empatiaapi.api.dto.UserDTO;
+import com.appempatia.empatiaapi.model.entity.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserMapperTest {
+
+    UserMapper mapper = new UserMapper();
+
+    @Test
+    @DisplayName("Should copy every field from dto to entity")
+    public void toEntityTest(){
+        UserDTO dto = UserDTO.builder().id(1l).name("Jhon Dole").email("jhon@dole.com").password("123456789").role(1).cellphone("99999999999").build();
+
+        User user = mapper.toEntity(dto);
+
+        assertThat(user.getId()).isEqualTo(dto.getId());
+        assertThat(user.getName()).isEqualTo(dto.getName());
+        assertThat(user.getEmail()).isEqualTo(dto.getEmail());
+        assertThat(user.getPassword()).isEqualTo(dto.getPassword());
+        assertThat(user.getRole()).isEqualTo(dto.getRole());
+        assertThat(user.getCellphone()).isEqualTo(dto.getCellphone());
+    }
+
+    @Test
+    @DisplayName("Should copy every field but the password from entity to dto")
+    public void toDtoTest(){
+        User user = User.builder().id(1l).name("Jhon Dole").email("jhon@dole.com").password("123456789").role(1).cellphone("99999999999").build();
+
+        UserDTO dto = mapper.toDto(user);
+
+        assertThat(dto.getId()).isEqualTo(user.getId());
+        assertThat(dto.getName()).isEqualTo(user.getName());
+        assertThat(dto.getEmail()).isEqualTo(user.getEmail());
+        assertThat(dto.getPassword()).isNull();
+        assertThat(dto.getRole()).isEqualTo(user.getRole());
+        assertThat(dto.getCellphone()).isEqualTo(user.getCellphone());
+    }
+
+    @Test
+    @DisplayName("Should map a list keeping the order")
+    public void toDtoListTest(){
+        List<User> users = Arrays.asList(User.builder().id(1l).build(), User.builder().id(2l).build());
+
+        List<UserDTO> list = mapper.toDtoList(users);
+
+        assertThat(list).extracting(UserDTO::getId).containsExactly(1l, 2l);
+    }
+
+    @Test
+    @DisplayName("Should return null when source is null")
+    public void nullSourceTest(){
+        assertThat(mapper.toEntity(null)).isNull();
+        assertThat(mapper.toDto(null)).isNull();
+    }
+}
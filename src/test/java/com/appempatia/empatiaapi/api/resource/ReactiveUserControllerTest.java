@@ -0,0 +1,183 @@
+package com.appempatia.empatiaapi.api.resource;
+
+import com.appempatia.empatiaapi.api.dto.UserDTO;
+import com.appempatia.empatiaapi.api.mapper.UserMapper;
+import com.appempatia.empatiaapi.api.resources.ReactiveUserController;
+import com.appempatia.empatiaapi.model.entity.User;
+import com.appempatia.empatiaapi.service.ReactiveUserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.concurrent.RejectedExecutionException;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles({"test", "reactive"})
+@WebFluxTest(ReactiveUserController.class)
+@Import(UserMapper.class)
+public class ReactiveUserControllerTest {
+
+    static String USER_API = "/api/users";
+
+    @Autowired
+    WebTestClient client;
+
+    @MockBean
+    ReactiveUserService service;
+
+    @Test
+    @DisplayName("Should get informations of an user")
+    public void getUserDetailsTest(){
+        User user = User.builder().id(1l).name("Jhon Dole").email("jhon@dole.com").password("123456789").role(1).cellphone("99999999999").build();
+
+        BDDMockito.given(service.getById(1l)).willReturn(Mono.just(user));
+
+        client.get().uri(USER_API + "/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("id").isEqualTo(1)
+                .jsonPath("name").isEqualTo("Jhon Dole")
+                .jsonPath("email").isEqualTo("jhon@dole.com");
+    }
+
+    @Test
+    @DisplayName("Should return not found when user does not exists")
+    public void userNotFoundTest(){
+        BDDMockito.given(service.getById(Mockito.anyLong())).willReturn(Mono.empty());
+
+        client.get().uri(USER_API + "/1")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Should filter users")
+    public void findUsersTest(){
+        User user = User.builder().id(1l).name("Jhon Dole").email("jhon@dole.com").password("123456789").role(1).cellphone("99999999999").build();
+
+        BDDMockito.given(service.find(Mockito.any(User.class), Mockito.any(Pageable.class)))
+                .willReturn(Mono.just(new PageImpl<>(Collections.singletonList(user), PageRequest.of(0, 100), 1)));
+
+        client.get().uri(USER_API + "?name=Jhon&page=0&size=100")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("content.length()").isEqualTo(1)
+                .jsonPath("content[0].name").isEqualTo("Jhon Dole")
+                .jsonPath("totalElements").isEqualTo(1)
+                .jsonPath("size").isEqualTo(100)
+                .jsonPath("number").isEqualTo(0)
+                .jsonPath("totalPages").isEqualTo(1);
+
+        Mockito.verify(service).find(Mockito.argThat(filter -> "Jhon".equals(filter.getName())), Mockito.eq(PageRequest.of(0, 100)));
+    }
+
+    @Test
+    @DisplayName("Should create a new user")
+    public void createUserTest(){
+        UserDTO dto = UserDTO.builder().name("Jhon Dole").email("jhon@dole.com").password("123456789").role(1).cellphone("99999999999").build();
+        User savedUser = User.builder().id(1l).name("Jhon Dole").email("jhon@dole.com").password("hashed").role(1).cellphone("99999999999").build();
+
+        BDDMockito.given(service.save(Mockito.any(User.class))).willReturn(Mono.just(savedUser));
+
+        client.post().uri(USER_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(dto)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("id").isEqualTo(1)
+                .jsonPath("password").doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Should return a validation error when creating an user without a password")
+    public void createInvalidUserTest(){
+        UserDTO dto = UserDTO.builder().name("Jhon Dole").email("jhon@dole.com").role(1).cellphone("99999999999").build();
+
+        client.post().uri(USER_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(dto)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("errors.length()").isEqualTo(1);
+
+        Mockito.verify(service, Mockito.never()).save(Mockito.any(User.class));
+    }
+
+    @Test
+    @DisplayName("Should return not found when updating an inexistent user")
+    public void updateInexistentUserTest(){
+        UserDTO dto = UserDTO.builder().name("Jhon Dole").email("jhon@dole.com").role(1).cellphone("99999999999").build();
+
+        BDDMockito.given(service.update(Mockito.eq(1l), Mockito.any(User.class))).willReturn(Mono.empty());
+
+        client.put().uri(USER_API + "/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(dto)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Should apply a partial update")
+    public void patchUserTest(){
+        User patchedUser = User.builder().id(1l).name("Jhon Dole").email("jhon@dole.com").role(1).cellphone("11111111111").build();
+
+        BDDMockito.given(service.patch(1l, Collections.singletonMap("cellphone", "11111111111"))).willReturn(Mono.just(patchedUser));
+
+        client.patch().uri(USER_API + "/1")
+                .contentType(MediaType.parseMediaType("application/merge-patch+json"))
+                .bodyValue(Collections.singletonMap("cellphone", "11111111111"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("cellphone").isEqualTo("11111111111");
+    }
+
+    @Test
+    @DisplayName("Should delete an user and answer not found the second time")
+    public void deleteUserTest(){
+        BDDMockito.given(service.deleteById(1l)).willReturn(Mono.just(true), Mono.just(false));
+
+        client.delete().uri(USER_API + "/1")
+                .exchange()
+                .expectStatus().isNoContent();
+
+        client.delete().uri(USER_API + "/1")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Should answer service unavailable when the password hashing queue is full")
+    public void createUserRejectedTest(){
+        UserDTO dto = UserDTO.builder().name("Jhon Dole").email("jhon@dole.com").password("123456789").role(1).cellphone("99999999999").build();
+
+        BDDMockito.given(service.save(Mockito.any(User.class))).willReturn(Mono.error(new RejectedExecutionException()));
+
+        client.post().uri(USER_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(dto)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
@@ -2,6 +2,9 @@ package com.appempatia.empatiaapi.api.resource;
 
 import com.appempatia.empatiaapi.api.dto.UserDTO;
 import com.appempatia.empatiaapi.api.exception.BusinessException;
+import com.appempatia.empatiaapi.api.idempotency.IdempotencyStore;
+import com.appempatia.empatiaapi.api.importer.UserImporter;
+import com.appempatia.empatiaapi.api.mapper.UserMapper;
 import com.appempatia.empatiaapi.model.entity.User;
 import com.appempatia.empatiaapi.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -15,29 +18,44 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.web.bind.annotation.GetMapping;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
 @WebMvcTest
 @AutoConfigureMockMvc
+@Import({UserMapper.class, UserImporter.class, IdempotencyStore.class})
 public class UserControllerTest {
 
     static String USER_API = "/api/users";
@@ -55,7 +73,7 @@ public class UserControllerTest {
 
         User savedUser = User.builder().id(1l).name("Jhon Dole").email("jhon@dole.com").password("123456789").role(1).cellphone("99999999999").build();
 
-        BDDMockito.given(service.save(Mockito.any(User.class))).willReturn(savedUser);
+        BDDMockito.given(service.save(Mockito.any(User.class))).willReturn(CompletableFuture.completedFuture(savedUser));
 
         String json = new ObjectMapper().writeValueAsString(dto);
 
@@ -65,13 +83,18 @@ public class UserControllerTest {
                 .accept(MediaType.APPLICATION_JSON)
                 .content(json);
 
-        mvc
+        MvcResult result = mvc
                 .perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc
+                .perform(asyncDispatch(result))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("id").value(1l))
                 .andExpect(jsonPath("name").value(dto.getName()))
                 .andExpect(jsonPath("email").value(dto.getEmail()))
-                .andExpect(jsonPath("password").value(dto.getPassword()))
+                .andExpect(jsonPath("password").doesNotExist())
                 .andExpect(jsonPath("role").value(dto.getRole()))
                 .andExpect(jsonPath("cellphone").value(dto.getCellphone()));
     }
@@ -119,6 +142,168 @@ public class UserControllerTest {
                 .andExpect(jsonPath("errors[0]").value(errorMessage));
     }
 
+    @Test
+    @DisplayName("Should return service unavailable when the password hashing queue is full")
+    public void createUserOverloadedTest() throws Exception {
+        String json = new ObjectMapper().writeValueAsString(createNewUser());
+
+        BDDMockito.given(service.save(Mockito.any(User.class)))
+                .willThrow(new RejectedExecutionException());
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(USER_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mvc.perform(request)
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("errors", hasSize(1)));
+    }
+
+    @Test
+    @DisplayName("Should replay the recorded response for a repeated Idempotency-Key")
+    public void createUserIdempotentReplayTest() throws Exception {
+        User savedUser = User.builder().id(1l).name("Jhon Dole").email("jhon@dole.com").password("123456789").role(1).cellphone("99999999999").build();
+
+        BDDMockito.given(service.save(Mockito.any(User.class))).willReturn(CompletableFuture.completedFuture(savedUser));
+
+        String json = new ObjectMapper().writeValueAsString(createNewUser());
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(USER_API)
+                .header("Idempotency-Key", "replay-key")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mvc.perform(asyncDispatch(mvc.perform(request).andReturn()))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyStore.REPLAYED_HEADER));
+
+        mvc.perform(asyncDispatch(mvc.perform(request).andReturn()))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyStore.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("id").value(1l));
+
+        Mockito.verify(service, Mockito.times(1)).save(Mockito.any(User.class));
+    }
+
+    @Test
+    @DisplayName("Should reject an Idempotency-Key reused with a different body")
+    public void createUserIdempotencyKeyMismatchTest() throws Exception {
+        User savedUser = User.builder().id(1l).name("Jhon Dole").email("jhon@dole.com").password("123456789").role(1).cellphone("99999999999").build();
+
+        BDDMockito.given(service.save(Mockito.any(User.class))).willReturn(CompletableFuture.completedFuture(savedUser));
+
+        UserDTO other = createNewUser();
+        other.setEmail("mary@dole.com");
+
+        mvc.perform(asyncDispatch(mvc.perform(MockMvcRequestBuilders
+                        .post(USER_API)
+                        .header("Idempotency-Key", "mismatch-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(createNewUser()))).andReturn()))
+                .andExpect(status().isCreated());
+
+        mvc.perform(MockMvcRequestBuilders
+                        .post(USER_API)
+                        .header("Idempotency-Key", "mismatch-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(other)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("errors[0]").value("Idempotency-Key já utilizada com outra requisição."));
+
+        Mockito.verify(service, Mockito.times(1)).save(Mockito.any(User.class));
+    }
+
+    @Test
+    @DisplayName("Should create users in batch reporting errors per item")
+    public void createUserBatchTest() throws Exception {
+        UserDTO first = createNewUser();
+        UserDTO duplicated = UserDTO.builder().name("Mary Dole").email("jhon@dole.com").password("123456789").role(1).cellphone("88888888888").build();
+        UserDTO invalid = new UserDTO();
+
+        BDDMockito.given(service.saveAll(Mockito.anyList())).willAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.get(0).setId(1l);
+            return Collections.singletonMap(1, "E-mail já cadastrado.");
+        });
+
+        String json = new ObjectMapper().writeValueAsString(Arrays.asList(first, invalid, duplicated));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(USER_API.concat("/batch"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("created").value(1))
+                .andExpect(jsonPath("failed").value(2))
+                .andExpect(jsonPath("items", hasSize(3)))
+                .andExpect(jsonPath("items[0].user.id").value(1))
+                .andExpect(jsonPath("items[1].errors", hasSize(4)))
+                .andExpect(jsonPath("items[2].index").value(2))
+                .andExpect(jsonPath("items[2].errors[0]").value("E-mail já cadastrado."));
+    }
+
+    @Test
+    @DisplayName("Should import users from a CSV body reporting errors per line")
+    public void importCsvTest() throws Exception {
+        BDDMockito.given(service.saveAll(Mockito.anyList()))
+                .willReturn(Collections.singletonMap(1, "E-mail já cadastrado."));
+
+        String csv = "name,email,password,role,cellphone\n"
+                + "Jhon Dole,jhon@dole.com,123456789,1,99999999999\n"
+                + "\"Dole, Mary\",mary@dole.com,123456789,x,88888888888\n"
+                + "\n"
+                + "Jhon Dole,jhon@dole.com,123456789,1,99999999999\n";
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(USER_API.concat("/import"))
+                .contentType("text/csv")
+                .accept(MediaType.APPLICATION_JSON)
+                .content(csv.getBytes(StandardCharsets.UTF_8));
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("processed").value(3))
+                .andExpect(jsonPath("imported").value(1))
+                .andExpect(jsonPath("failed").value(2))
+                .andExpect(jsonPath("errors[0].line").value(3))
+                .andExpect(jsonPath("errors[0].errors[0]").value("Linha inválida."))
+                .andExpect(jsonPath("errors[1].line").value(5))
+                .andExpect(jsonPath("errors[1].errors[0]").value("E-mail já cadastrado."));
+    }
+
+    @Test
+    @DisplayName("Should import users from a NDJSON body validating each line")
+    public void importNdjsonTest() throws Exception {
+        BDDMockito.given(service.saveAll(Mockito.anyList())).willReturn(Collections.emptyMap());
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        String ndjson = objectMapper.writeValueAsString(createNewUser()) + "\n"
+                + objectMapper.writeValueAsString(new UserDTO()) + "\n";
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(USER_API.concat("/import"))
+                .contentType("application/x-ndjson")
+                .accept(MediaType.APPLICATION_JSON)
+                .content(ndjson.getBytes(StandardCharsets.UTF_8));
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("processed").value(2))
+                .andExpect(jsonPath("imported").value(1))
+                .andExpect(jsonPath("failed").value(1))
+                .andExpect(jsonPath("errors[0].line").value(2))
+                .andExpect(jsonPath("errors[0].errors", hasSize(4)));
+
+        Mockito.verify(service, Mockito.times(1)).saveAll(Mockito.anyList());
+    }
+
     @Test
     @DisplayName("Should get informations of an user")
     public void getUserDetailTest() throws Exception{
@@ -147,9 +332,47 @@ public class UserControllerTest {
                 .andExpect(jsonPath("id").value(id))
                 .andExpect(jsonPath("name").value(createNewUser().getName()))
                 .andExpect(jsonPath("email").value(createNewUser().getEmail()))
-                .andExpect(jsonPath("password").value(createNewUser().getPassword()))
+                .andExpect(jsonPath("password").doesNotExist())
                 .andExpect(jsonPath("role").value(createNewUser().getRole()))
-                .andExpect(jsonPath("cellphone").value(createNewUser().getCellphone()));
+                .andExpect(jsonPath("cellphone").value(createNewUser().getCellphone()))
+                .andExpect(header().string("ETag", "\"0\""));
+    }
+
+    @Test
+    @DisplayName("Should answer not modified from the version alone when the ETag matches")
+    public void getUserNotModifiedTest() throws Exception{
+        BDDMockito.given(service.findVersion(1l)).willReturn(Optional.of(3l));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(USER_API.concat("/" + 1))
+                .header("If-None-Match", "\"3\"")
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+
+        Mockito.verify(service, Mockito.never()).getById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should return the user when the ETag is stale")
+    public void getUserModifiedTest() throws Exception{
+        User user = User.builder().id(1l).name("Jhon Dole").email("jhon@dole.com").password("123456789").role(1).cellphone("99999999999").version(4l).build();
+
+        BDDMockito.given(service.findVersion(1l)).willReturn(Optional.of(4l));
+        BDDMockito.given(service.getById(1l)).willReturn(Optional.of(user));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(USER_API.concat("/" + 1))
+                .header("If-None-Match", "\"3\"")
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("id").value(1));
     }
 
     @Test
@@ -170,7 +393,7 @@ public class UserControllerTest {
     @DisplayName("Should remove an user")
     public void deleteUserTest() throws Exception{
         // cenário
-        BDDMockito.given(service.getById(anyLong())).willReturn(Optional.of(User.builder().id(1l).build()));
+        BDDMockito.given(service.deleteById(1l)).willReturn(true);
 
         // execução
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders
@@ -187,7 +410,7 @@ public class UserControllerTest {
     @DisplayName("Should return user not found when try to remove unexistable user")
     public void deleteInexistentUserTest() throws Exception{
         // cenário
-        BDDMockito.given(service.getById(anyLong())).willReturn(Optional.empty());
+        BDDMockito.given(service.deleteById(anyLong())).willReturn(false);
 
         // execução
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders
@@ -208,23 +431,11 @@ public class UserControllerTest {
 
         String json = new ObjectMapper().writeValueAsString(createNewUser());
 
-        User updatingUser = User.builder()
-                .id(1l)
-                .name("Jhony Duly")
-                .email("jhony@dule.com")
-                .cellphone("123456789")
-                .role(1)
-                .password("123456789")
-                .build();
-
-        BDDMockito.given( service.getById(id) )
-                .willReturn(Optional.of(updatingUser));
-
         User updatedUser = User.builder().id(id).name("Jhon Dole").email("jhon@dole.com").password("123456789").role(1).cellphone("99999999999").build();
 
         BDDMockito
-                .given(service.update(updatingUser))
-                .willReturn(updatedUser);
+                .given(service.update(eq(id), Mockito.any(User.class)))
+                .willReturn(CompletableFuture.completedFuture(Optional.of(updatedUser)));
 
         // execução
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders
@@ -233,21 +444,71 @@ public class UserControllerTest {
                 .accept(MediaType.APPLICATION_JSON)
                 .contentType(MediaType.APPLICATION_JSON);
 
-
-
+        MvcResult result = mvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
 
         // verificação
 
-        mvc.perform(request)
+        mvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("id").value(id))
                 .andExpect(jsonPath("name").value(createNewUser().getName()))
                 .andExpect(jsonPath("email").value("jhon@dole.com"))
-                .andExpect(jsonPath("password").value(createNewUser().getPassword()))
+                .andExpect(jsonPath("password").doesNotExist())
                 .andExpect(jsonPath("role").value(createNewUser().getRole()))
                 .andExpect(jsonPath("cellphone").value(createNewUser().getCellphone()));
     }
 
+    @Test
+    @DisplayName("Should update user details without sending the password")
+    public void updateUserWithoutPasswordTest() throws Exception{
+        // cenário
+        UserDTO dto = createNewUser();
+        dto.setPassword(null);
+
+        String json = new ObjectMapper().writeValueAsString(dto);
+
+        User updatedUser = User.builder().id(1l).name("Jhon Dole").email("jhon@dole.com").role(1).cellphone("99999999999").build();
+
+        BDDMockito
+                .given(service.update(eq(1l), Mockito.argThat(user -> user.getPassword() == null)))
+                .willReturn(CompletableFuture.completedFuture(Optional.of(updatedUser)));
+
+        // execução
+        MvcResult result = mvc.perform(MockMvcRequestBuilders
+                        .put(USER_API.concat("/1"))
+                        .content(json)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // verificação
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("id").value(1l))
+                .andExpect(jsonPath("password").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should require the password when creating an user")
+    public void createUserWithoutPasswordTest() throws Exception{
+        UserDTO dto = createNewUser();
+        dto.setPassword(null);
+
+        mvc.perform(MockMvcRequestBuilders
+                        .post(USER_API)
+                        .content(new ObjectMapper().writeValueAsString(dto))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors", hasSize(1)));
+
+        Mockito.verify(service, Mockito.never()).save(Mockito.any(User.class));
+    }
+
     @Test
     @DisplayName("Should return an error when book is not found")
     public void updateInexistentUserTest() throws Exception{
@@ -255,17 +516,8 @@ public class UserControllerTest {
 
         String json = new ObjectMapper().writeValueAsString(createNewUser());
 
-        User updatingUser = User.builder()
-                .id(1l)
-                .name("Jhony Duly")
-                .email("jhony@dule.com")
-                .cellphone("123456789")
-                .role(1)
-                .password("123456789")
-                .build();
-
-        BDDMockito.given( service.getById(anyLong()) )
-                .willReturn(Optional.empty());
+        BDDMockito.given( service.update(anyLong(), Mockito.any(User.class)) )
+                .willReturn(CompletableFuture.completedFuture(Optional.empty()));
 
         // execução
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders
@@ -274,12 +526,167 @@ public class UserControllerTest {
                 .accept(MediaType.APPLICATION_JSON)
                 .contentType(MediaType.APPLICATION_JSON);
 
+        MvcResult result = mvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
         // verificação
 
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should partially update an user with a merge patch")
+    public void patchUserTest() throws Exception{
+        User patchedUser = User.builder().id(1l).name("Jhon Dole").email("jhon@dole.com").password("123456789").role(1).cellphone("11111111111").build();
+
+        BDDMockito.given(service.patch(eq(1l), Mockito.anyMap()))
+                .willReturn(CompletableFuture.completedFuture(Optional.of(patchedUser)));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .patch(USER_API.concat("/" + 1))
+                .content("{\"cellphone\":\"11111111111\"}")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType("application/merge-patch+json");
+
+        MvcResult result = mvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("id").value(1))
+                .andExpect(jsonPath("cellphone").value("11111111111"))
+                .andExpect(header().string("ETag", "\"0\""));
+
+        Mockito.verify(service).patch(1l, Collections.singletonMap("cellphone", "11111111111"));
+    }
+
+    @Test
+    @DisplayName("Should update only the expected version when If-Match is sent")
+    public void updateUserIfMatchTest() throws Exception{
+        User updatedUser = User.builder().id(1l).name("Jhon Dole").email("jhon@dole.com").password("123456789").role(1).cellphone("99999999999").version(4l).build();
+
+        BDDMockito.given(service.update(eq(1l), eq(3l), Mockito.any(User.class)))
+                .willReturn(CompletableFuture.completedFuture(Optional.of(updatedUser)));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(USER_API.concat("/" + 1))
+                .header("If-Match", "\"3\"")
+                .content(new ObjectMapper().writeValueAsString(createNewUser()))
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON);
+
+        MvcResult result = mvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+
+        Mockito.verify(service, Mockito.never()).update(anyLong(), Mockito.any(User.class));
+    }
+
+    @Test
+    @DisplayName("Should return precondition failed when the If-Match version is stale")
+    public void updateUserStaleIfMatchTest() throws Exception{
+        CompletableFuture<Optional<User>> conflict = new CompletableFuture<>();
+        conflict.completeExceptionally(new OptimisticLockingFailureException("stale"));
+
+        BDDMockito.given(service.update(eq(1l), eq(3l), Mockito.any(User.class))).willReturn(conflict);
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(USER_API.concat("/" + 1))
+                .header("If-Match", "\"3\"")
+                .content(new ObjectMapper().writeValueAsString(createNewUser()))
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON);
+
+        MvcResult result = mvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("errors", hasSize(1)));
+    }
+
+    @Test
+    @DisplayName("Should return precondition failed when patching a stale version")
+    public void patchUserStaleIfMatchTest() throws Exception{
+        CompletableFuture<Optional<User>> conflict = new CompletableFuture<>();
+        conflict.completeExceptionally(new OptimisticLockingFailureException("stale"));
+
+        BDDMockito.given(service.patch(eq(1l), eq(3l), Mockito.anyMap())).willReturn(conflict);
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .patch(USER_API.concat("/" + 1))
+                .header("If-Match", "\"3\"")
+                .content("{\"name\":\"Jhon\"}")
+                .contentType("application/merge-patch+json");
+
+        MvcResult result = mvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @DisplayName("Should reject If-Match values that are not one of our ETags")
+    public void patchUserInvalidIfMatchTest() throws Exception{
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .patch(USER_API.concat("/" + 1))
+                .header("If-Match", "W/\"3\"")
+                .content("{\"name\":\"Jhon\"}")
+                .contentType("application/merge-patch+json");
+
         mvc.perform(request)
+                .andExpect(status().isPreconditionFailed());
+
+        Mockito.verifyNoInteractions(service);
+    }
+
+    @Test
+    @DisplayName("Should return not found when patching an inexistent user")
+    public void patchInexistentUserTest() throws Exception{
+        BDDMockito.given(service.patch(anyLong(), Mockito.anyMap()))
+                .willReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .patch(USER_API.concat("/" + 1))
+                .content("{\"name\":\"Jhon\"}")
+                .contentType("application/merge-patch+json");
+
+        MvcResult result = mvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("Should return a validation error when updating with an empty field")
+    public void updateInvalidUserTest() throws Exception{
+        String json = new ObjectMapper().writeValueAsString(new UserDTO());
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(USER_API.concat("/" + 1))
+                .content(json)
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors", hasSize(3)));
+
+        Mockito.verify(service, Mockito.never()).update(anyLong(), Mockito.any(User.class));
+    }
+
     @Test
     @DisplayName("Should filter users")
     public void findUserTest() throws Exception{
@@ -309,11 +716,178 @@ public class UserControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("content", Matchers.hasSize(1)))
                 .andExpect(jsonPath("totalElements").value(1))
-                .andExpect(jsonPath("pageable.pageSize").value(100))
-                .andExpect(jsonPath("pageable.pageNumber").value(0));
+                .andExpect(jsonPath("totalPages").value(1))
+                .andExpect(jsonPath("size").value(100))
+                .andExpect(jsonPath("number").value(0))
+                .andExpect(jsonPath("pageable").doesNotExist())
+                .andExpect(jsonPath("sort").doesNotExist());
     }
 
+    @Test
+    @DisplayName("Should answer not modified when the page did not change")
+    public void findUsersNotModifiedTest() throws Exception{
+        User user = User.builder().id(1l).name("Jhon Dole").email("jhon@dole.com").version(2l).build();
+
+        BDDMockito.given(service.find(Mockito.any(User.class),Mockito.any(Pageable.class)))
+                .willReturn(new PageImpl<User>(Arrays.asList(user), PageRequest.of(0,100),1));
 
+        String etag = mvc.perform(MockMvcRequestBuilders.get(USER_API.concat("?page=0&size=100")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", Matchers.startsWith("W/\"")))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mvc.perform(MockMvcRequestBuilders.get(USER_API.concat("?page=0&size=100")).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        user.setVersion(3l);
+
+        mvc.perform(MockMvcRequestBuilders.get(USER_API.concat("?page=0&size=100")).header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+
+    @Test
+    @DisplayName("Should filter users without counting")
+    public void findUserSliceTest() throws Exception{
+        User user = User.builder().id(1l).name(createNewUser().getName()).email(createNewUser().getEmail()).build();
+
+        BDDMockito.given(service.findSlice(Mockito.any(User.class), Mockito.any(Pageable.class)))
+                .willReturn(new SliceImpl<User>(Arrays.asList(user), PageRequest.of(0, 100), true));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(USER_API.concat("?name=dole&page=0&size=100&count=false"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("last").value(false))
+                .andExpect(jsonPath("size").value(100))
+                .andExpect(jsonPath("totalElements").doesNotExist())
+                .andExpect(jsonPath("pageable").doesNotExist());
+
+        Mockito.verify(service, Mockito.never()).find(Mockito.any(User.class), Mockito.any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should list users with a cursor")
+    public void findUserByCursorTest() throws Exception{
+        User first = User.builder().id(1l).name("Jhon Dole").email("jhon@dole.com").build();
+        User second = User.builder().id(2l).name("Mary Dole").email("mary@dole.com").build();
+
+        BDDMockito.given(service.findAfter(Mockito.any(User.class), isNull(), eq(2)))
+                .willReturn(new SliceImpl<User>(Arrays.asList(first, second), PageRequest.of(0, 2), true));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(USER_API.concat("?name=dole&cursor=&size=2"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        String next = Base64.getUrlEncoder().withoutPadding().encodeToString("2".getBytes(StandardCharsets.UTF_8));
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", Matchers.hasSize(2)))
+                .andExpect(jsonPath("size").value(2))
+                .andExpect(jsonPath("next").value(next))
+                .andExpect(jsonPath("totalElements").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should continue listing after the cursor id")
+    public void findUserAfterCursorTest() throws Exception{
+        BDDMockito.given(service.findAfter(Mockito.any(User.class), eq(2l), eq(20)))
+                .willReturn(new SliceImpl<User>(Arrays.asList(User.builder().id(3l).build()), PageRequest.of(0, 20), false));
+
+        String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString("2".getBytes(StandardCharsets.UTF_8));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(USER_API.concat("?cursor=" + cursor))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("next").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should use the cursor mode when both count=false and cursor are sent")
+    public void findUserCursorWithCountFalseTest() throws Exception{
+        BDDMockito.given(service.findAfter(Mockito.any(User.class), isNull(), eq(20)))
+                .willReturn(new SliceImpl<User>(Arrays.asList(User.builder().id(1l).build()), PageRequest.of(0, 20), false));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(USER_API.concat("?count=false&cursor="))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("next").doesNotExist());
+
+        Mockito.verify(service, Mockito.never()).findSlice(Mockito.any(User.class), Mockito.any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should return bad request for an invalid cursor")
+    public void findUserByInvalidCursorTest() throws Exception{
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(USER_API.concat("?cursor=@@@"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0]").value("Cursor inválido."));
+    }
+
+    @Test
+    @DisplayName("Should export users as NDJSON")
+    public void exportNdjsonTest() throws Exception{
+        BDDMockito.given(service.export(Mockito.any(User.class), Mockito.any())).willAnswer(invocation -> {
+            Consumer<User> consumer = invocation.getArgument(1);
+            consumer.accept(User.builder().id(1l).name("Jhon Dole").email("jhon@dole.com").password("123456789").role(1).cellphone("99999999999").build());
+            consumer.accept(User.builder().id(2l).name("Mary Dole").email("mary@dole.com").password("123456789").role(2).cellphone("88888888888").build());
+            return 2l;
+        });
+
+        MvcResult result = mvc.perform(MockMvcRequestBuilders.get(USER_API.concat("/export?name=dole")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(content().string(
+                        "{\"id\":1,\"name\":\"Jhon Dole\",\"email\":\"jhon@dole.com\",\"role\":1,\"cellphone\":\"99999999999\"}\n" +
+                        "{\"id\":2,\"name\":\"Mary Dole\",\"email\":\"mary@dole.com\",\"role\":2,\"cellphone\":\"88888888888\"}\n"));
+    }
+
+    @Test
+    @DisplayName("Should export users as CSV")
+    public void exportCsvTest() throws Exception{
+        BDDMockito.given(service.export(Mockito.any(User.class), Mockito.any())).willAnswer(invocation -> {
+            Consumer<User> consumer = invocation.getArgument(1);
+            consumer.accept(User.builder().id(1l).name("Dole, Jhon").email("jhon@dole.com").role(1).cellphone("99999999999").build());
+            return 1l;
+        });
+
+        MvcResult result = mvc.perform(MockMvcRequestBuilders.get(USER_API.concat("/export?format=csv")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("id,name,email,role,cellphone\n1,\"Dole, Jhon\",jhon@dole.com,1,99999999999\n"));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown export formats")
+    public void exportInvalidFormatTest() throws Exception{
+        mvc.perform(MockMvcRequestBuilders.get(USER_API.concat("/export?format=xml")))
+                .andExpect(status().isBadRequest());
+    }
 
     private UserDTO createNewUser() {
         return UserDTO.builder().name("Jhon Dole").email("jhon@dole.com").password("123456789").role(1).cellphone("99999999999").build();
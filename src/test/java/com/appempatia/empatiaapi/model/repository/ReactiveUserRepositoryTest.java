@@ -0,0 +1,98 @@
+package com.appempatia.empatiaapi.model.repository;
+
+import com.appempatia.empatiaapi.api.exception.BusinessException;
+import com.appempatia.empatiaapi.model.entity.User;
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.test.StepVerifier;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class ReactiveUserRepositoryTest {
+
+    ReactiveUserRepository repository;
+
+    @BeforeEach
+    public void setUp(){
+        String url = "r2dbc:h2:mem:///" + UUID.randomUUID() + "?options=DB_CLOSE_DELAY=-1";
+        repository = new ReactiveUserRepository(url, 1, 2);
+
+        DatabaseClient client = DatabaseClient.create(ConnectionFactories.get(url));
+        client.sql("create table user (id bigint primary key, name varchar(255), email varchar(255), " +
+                "password varchar(255), role int, cellphone varchar(255), version bigint default 0 not null)").then().block();
+        insert(client, 1, "Jhon Dole", "jhon@dole.com", 1);
+        insert(client, 2, "Mary Dole", "mary@dole.com", 2);
+        insert(client, 3, "Jhon_Smith", "smith@dole.com", 1);
+    }
+
+    @AfterEach
+    public void tearDown(){
+        repository.close();
+    }
+
+    @Test
+    @DisplayName("Should find an user by id")
+    public void findByIdTest(){
+        StepVerifier.create(repository.findById(2l))
+                .assertNext(user -> {
+                    assertThat(user.getName()).isEqualTo("Mary Dole");
+                    assertThat(user.getRole()).isEqualTo(2);
+                })
+                .verifyComplete();
+
+        StepVerifier.create(repository.findById(4l)).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should filter ignoring case and treating LIKE wildcards literally")
+    public void findAllTest(){
+        StepVerifier.create(repository.findAll(User.builder().name("JHON").build(), PageRequest.of(0, 10)))
+                .expectNextMatches(user -> user.getId() == 1l)
+                .expectNextMatches(user -> user.getId() == 3l)
+                .verifyComplete();
+
+        StepVerifier.create(repository.findAll(User.builder().name("n_").build(), PageRequest.of(0, 10)))
+                .expectNextMatches(user -> user.getId() == 3l)
+                .verifyComplete();
+
+        StepVerifier.create(repository.count(User.builder().role(1).build()))
+                .expectNext(2l)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should page and sort the results")
+    public void findAllPagedTest(){
+        StepVerifier.create(repository.findAll(new User(), PageRequest.of(1, 1, Sort.by("id").descending())))
+                .expectNextMatches(user -> user.getId() == 2l)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should reject sorting by unknown properties")
+    public void findAllInvalidSortTest(){
+        Throwable exception = catchThrowable(() ->
+                repository.findAll(new User(), PageRequest.of(0, 1, Sort.by("password"))));
+
+        assertThat(exception).isInstanceOf(BusinessException.class);
+    }
+
+    private void insert(DatabaseClient client, long id, String name, String email, int role) {
+        client.sql("insert into user (id, name, email, password, role, cellphone) values (:id, :name, :email, '123456789', :role, '99999999999')")
+                .bind("id", id)
+                .bind("name", name)
+                .bind("email", email)
+                .bind("role", role)
+                .then()
+                .block();
+    }
+}
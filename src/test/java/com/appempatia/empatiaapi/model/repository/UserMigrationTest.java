@@ -0,0 +1,64 @@
+package com.appempatia.empatiaapi.model.repository;
+
+import com.appempatia.empatiaapi.model.entity.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+public class UserMigrationTest {
+
+    @Autowired
+    UserRepository repository;
+
+    @Test
+    @DisplayName("Should create a schema that matches the User mapping")
+    public void migratedSchemaTest(){
+        // execução
+
+        User saved = repository.saveAndFlush(createNewUser("jhon@dole.com"));
+
+        // verificação
+
+        assertThat(saved.getId()).isNotNull();
+        assertThat(repository.findVersionById(saved.getId())).contains(0l);
+    }
+
+    @Test
+    @DisplayName("Should keep the unique e-mail constraint in the migrated schema")
+    public void migratedUniqueEmailTest(){
+        // cenário
+
+        repository.saveAndFlush(createNewUser("jhon@dole.com"));
+
+        // execução
+
+        Throwable exception = catchThrowable(() -> repository.saveAndFlush(createNewUser("jhon@dole.com")));
+
+        // verificação
+
+        assertThat(exception).isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private User createNewUser(String email) {
+        return User.builder()
+                .name("Jhon Dole")
+                .email(email)
+                .role(1).cellphone("99999999999")
+                .password("12345678")
+                .build();
+    }
+}
@@ -1,22 +1,34 @@
 package com.appempatia.empatiaapi.model.repository;
 
 import com.appempatia.empatiaapi.model.entity.User;
+import com.appempatia.empatiaapi.support.SqlStatements;
+import com.appempatia.empatiaapi.support.SqlStatementsConfig;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
 @DataJpaTest
+@Import(SqlStatementsConfig.class)
 public class UserRepositoryTest {
 
     @Autowired
@@ -102,6 +114,166 @@ public class UserRepositoryTest {
         assertThat(deletedUser).isNull();
     }
 
+    @Test
+    @DisplayName("Should not save two users with the same email")
+    public void uniqueEmailTest(){
+        entityManager.persist(createNewUser("jhon@dole.com"));
+
+        Throwable exception = catchThrowable(() -> repository.saveAndFlush(createNewUser("jhon@dole.com")));
+
+        assertThat(exception).isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @DisplayName("Should list users after an id ordered by id")
+    public void findAfterTest(){
+        User first = entityManager.persist(createNewUser("jhon@dole.com"));
+        User second = entityManager.persist(createNewUser("mary@dole.com"));
+        User third = entityManager.persist(createNewUser("paul@dole.com"));
+
+        List<User> result = repository.findAfter(new User(), first.getId(), 10);
+
+        assertThat(result).extracting(User::getId).containsExactly(second.getId(), third.getId());
+    }
+
+    @Test
+    @DisplayName("Should apply the filter and the limit when listing after an id")
+    public void findAfterWithFilterTest(){
+        entityManager.persist(createNewUser("jhon@dole.com"));
+        User mary = entityManager.persist(createNewUser("MARY@dole.com"));
+        entityManager.persist(createNewUser("mary.jane@dole.com"));
+
+        List<User> result = repository.findAfter(User.builder().email("mary").build(), null, 1);
+
+        assertThat(result).extracting(User::getId).containsExactly(mary.getId());
+    }
+
+    @Test
+    @DisplayName("Should return a slice telling if there is a next page")
+    public void findSliceTest(){
+        entityManager.persist(createNewUser("jhon@dole.com"));
+        entityManager.persist(createNewUser("mary@dole.com"));
+        entityManager.persist(createNewUser("paul@dole.com"));
+
+        Slice<User> first = repository.findSlice(new User(), PageRequest.of(0, 2, Sort.by("email")));
+        Slice<User> last = repository.findSlice(new User(), PageRequest.of(1, 2, Sort.by("email")));
+
+        assertThat(first.hasNext()).isTrue();
+        assertThat(first.getContent()).extracting(User::getEmail).containsExactly("jhon@dole.com", "mary@dole.com");
+        assertThat(last.hasNext()).isFalse();
+        assertThat(last.getContent()).extracting(User::getEmail).containsExactly("paul@dole.com");
+    }
+
+    @Test
+    @DisplayName("Should return which e-mails are already registered")
+    public void findExistingEmailsTest(){
+        entityManager.persist(createNewUser("jhon@dole.com"));
+
+        List<String> existing = repository.findExistingEmails(Arrays.asList("jhon@dole.com", "mary@dole.com"));
+
+        assertThat(existing).containsExactly("jhon@dole.com");
+    }
+
+    @Test
+    @DisplayName("Should delete an user by id returning the affected rows")
+    public void deleteUserByIdTest(){
+        User user = entityManager.persist(createNewUser("jhon@dole.com"));
+        entityManager.flush();
+        SqlStatements.reset();
+
+        int deleted = repository.deleteUserById(user.getId());
+        SqlStatements.atMost().deletes(1).verify();
+        entityManager.clear();
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(entityManager.find(User.class, user.getId())).isNull();
+        assertThat(repository.deleteUserById(user.getId())).isZero();
+    }
+
+    @Test
+    @DisplayName("Should update an user by id returning the affected rows")
+    public void updateByIdTest(){
+        User user = entityManager.persist(createNewUser("jhon@dole.com"));
+        entityManager.flush();
+
+        User changes = createNewUser("mary@dole.com");
+        changes.setName("Mary Dole");
+        SqlStatements.reset();
+
+        int updated = repository.updateById(user.getId(), changes);
+        SqlStatements.atMost().updates(1).verify();
+        entityManager.clear();
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(entityManager.find(User.class, user.getId()).getEmail()).isEqualTo("mary@dole.com");
+        assertThat(entityManager.find(User.class, user.getId()).getVersion()).isEqualTo(user.getVersion() + 1);
+        assertThat(repository.updateById(-1l, changes)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should update an user only at the expected version")
+    public void updateByIdAndVersionTest(){
+        User user = entityManager.persist(createNewUser("jhon@dole.com"));
+        entityManager.flush();
+
+        User changes = createNewUser("mary@dole.com");
+
+        assertThat(repository.updateByIdAndVersion(user.getId(), user.getVersion() + 1, changes)).isZero();
+        assertThat(repository.updateByIdAndVersion(user.getId(), user.getVersion(), changes)).isEqualTo(1);
+        assertThat(repository.updateByIdAndVersion(user.getId(), user.getVersion(), changes)).isZero();
+        entityManager.clear();
+
+        assertThat(entityManager.find(User.class, user.getId()).getVersion()).isEqualTo(user.getVersion() + 1);
+    }
+
+    @Test
+    @DisplayName("Should keep the stored password when updating only the profile")
+    public void updateProfileByIdTest(){
+        User user = entityManager.persist(createNewUser("jhon@dole.com"));
+        entityManager.flush();
+
+        User changes = createNewUser("mary@dole.com");
+        changes.setPassword(null);
+
+        assertThat(repository.updateProfileByIdAndVersion(user.getId(), user.getVersion() + 1, changes)).isZero();
+        assertThat(repository.updateProfileByIdAndVersion(user.getId(), user.getVersion(), changes)).isEqualTo(1);
+        assertThat(repository.updateProfileById(user.getId(), changes)).isEqualTo(1);
+        entityManager.clear();
+
+        User updated = entityManager.find(User.class, user.getId());
+        assertThat(updated.getEmail()).isEqualTo("mary@dole.com");
+        assertThat(updated.getPassword()).isEqualTo("12345678");
+        assertThat(updated.getVersion()).isEqualTo(user.getVersion() + 2);
+    }
+
+    @Test
+    @DisplayName("Should read only the version of an user")
+    public void findVersionByIdTest(){
+        User user = entityManager.persist(createNewUser("jhon@dole.com"));
+        user.setName("Jhony Duly");
+        entityManager.flush();
+
+        assertThat(repository.findVersionById(user.getId())).contains(1l);
+        assertThat(repository.findVersionById(-1l)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should visit every matching user in id order detaching them")
+    public void forEachMatchingTest(){
+        entityManager.persist(createNewUser("jhon@dole.com"));
+        entityManager.persist(createNewUser("mary@dole.com"));
+        entityManager.persist(createNewUser("paul@smith.com"));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<User> visited = new ArrayList<>();
+        long count = repository.forEachMatching(User.builder().email("dole").build(), 1, visited::add);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(visited).extracting(User::getEmail).containsExactly("jhon@dole.com", "mary@dole.com");
+        assertThat(entityManager.getEntityManager().contains(visited.get(0))).isFalse();
+    }
+
     private User createNewUser(String email) {
         return User.builder()
                 .name("Jhon Dole")
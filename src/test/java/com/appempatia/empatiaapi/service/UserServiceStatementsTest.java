@@ -0,0 +1,396 @@
+package com.appempatia.empatiaapi.service;
+
+import com.appempatia.empatiaapi.api.exception.BusinessException;
+import com.appempatia.empatiaapi.config.WarmUpConfig;
+import com.appempatia.empatiaapi.model.entity.User;
+import com.appempatia.empatiaapi.service.impl.UserServiceImpl;
+import com.appempatia.empatiaapi.service.support.EmailFilter;
+import com.appempatia.empatiaapi.service.support.PasswordHasher;
+import com.appempatia.empatiaapi.service.support.UserCache;
+import com.appempatia.empatiaapi.service.support.UserCounter;
+import com.appempatia.empatiaapi.service.support.UserSearchIndex;
+import com.appempatia.empatiaapi.service.support.UserWriteExecutor;
+import com.appempatia.empatiaapi.support.SqlStatements;
+import com.appempatia.empatiaapi.support.SqlStatementsConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest(properties = {
+        "app.users.password.min-strength=4",
+        "app.users.password.target-latency=0ms"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({UserServiceImpl.class, EmailFilter.class, UserCounter.class, UserSearchIndex.class, UserCache.class,
+        UserWriteExecutor.class, PasswordHasher.class, WarmUpConfig.class, SqlStatementsConfig.class})
+public class UserServiceStatementsTest {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    @Autowired
+    UserService service;
+
+    @Autowired
+    UserCache userCache;
+
+    @BeforeEach
+    public void setUp(){
+        SqlStatements.reset();
+    }
+
+    @Test
+    @DisplayName("save should issue at most 1 select and 1 insert")
+    public void saveBudgetTest(){
+        // execução
+
+        service.save(createNewUser()).join();
+
+        // verificação
+
+        SqlStatements.atMost().selects(1).inserts(1).verify();
+    }
+
+    @Test
+    @DisplayName("save should stop at the e-mail lookup when the e-mail is taken")
+    public void saveDuplicatedEmailBudgetTest(){
+        // cenário
+
+        User existing = service.save(createNewUser()).join();
+        SqlStatements.reset();
+
+        // execução
+
+        User duplicated = createNewUser();
+        duplicated.setEmail(existing.getEmail());
+        Throwable exception = catchThrowable(() -> service.save(duplicated));
+
+        // verificação
+
+        assertThat(exception).isInstanceOf(BusinessException.class);
+        SqlStatements.atMost().selects(1).verify();
+    }
+
+    @Test
+    @DisplayName("saveAll should issue at most 1 select and a single batched insert")
+    public void saveAllBudgetTest(){
+        // cenário
+
+        List<User> users = Arrays.asList(createNewUser(), createNewUser(), createNewUser());
+
+        // execução
+
+        Map<Integer, String> rejected = service.saveAll(users);
+
+        // verificação
+
+        assertThat(rejected).isEmpty();
+        SqlStatements.atMost().selects(1).inserts(1).verify();
+    }
+
+    @Test
+    @DisplayName("getById should issue 1 select on a cache miss and none on a hit")
+    public void getByIdBudgetTest(){
+        // cenário
+
+        User user = service.save(createNewUser()).join();
+        userCache.evict(user.getId());
+        SqlStatements.reset();
+
+        // execução
+
+        service.getById(user.getId());
+
+        // verificação
+
+        SqlStatements.atMost().selects(1).verify();
+
+        SqlStatements.reset();
+        service.getById(user.getId());
+        SqlStatements.atMost().verify();
+    }
+
+    @Test
+    @DisplayName("findVersion should issue 1 select on a cache miss and none on a hit")
+    public void findVersionBudgetTest(){
+        // cenário
+
+        User user = service.save(createNewUser()).join();
+        SqlStatements.reset();
+
+        // execução
+
+        service.findVersion(user.getId());
+
+        // verificação
+
+        SqlStatements.atMost().verify();
+
+        userCache.evict(user.getId());
+        SqlStatements.reset();
+        service.findVersion(user.getId());
+        SqlStatements.atMost().selects(1).verify();
+    }
+
+    @Test
+    @DisplayName("deleteById should issue a single delete")
+    public void deleteByIdBudgetTest(){
+        // cenário
+
+        User user = service.save(createNewUser()).join();
+        SqlStatements.reset();
+
+        // execução
+
+        service.deleteById(user.getId());
+
+        // verificação
+
+        SqlStatements.atMost().deletes(1).verify();
+    }
+
+    @Test
+    @DisplayName("update by id should issue a single update")
+    public void updateByIdBudgetTest(){
+        // cenário
+
+        User user = service.save(createNewUser()).join();
+        SqlStatements.reset();
+
+        // execução
+
+        service.update(user.getId(), createNewUser()).join();
+
+        // verificação
+
+        SqlStatements.atMost().updates(1).verify();
+    }
+
+    @Test
+    @DisplayName("update by id and version should issue a single update")
+    public void updateByIdAndVersionBudgetTest(){
+        // cenário
+
+        User user = service.save(createNewUser()).join();
+        SqlStatements.reset();
+
+        // execução
+
+        service.update(user.getId(), user.getVersion(), createNewUser()).join();
+
+        // verificação
+
+        SqlStatements.atMost().updates(1).verify();
+    }
+
+    @Test
+    @DisplayName("update by id and version should add only a version lookup on conflict")
+    public void updateByIdAndVersionConflictBudgetTest(){
+        // cenário
+
+        User user = service.save(createNewUser()).join();
+        SqlStatements.reset();
+
+        // execução
+
+        catchThrowable(() -> service.update(user.getId(), user.getVersion() + 1, createNewUser()).join());
+
+        // verificação
+
+        SqlStatements.atMost().selects(1).updates(1).verify();
+    }
+
+    @Test
+    @DisplayName("patch should issue at most 1 select and 1 update")
+    public void patchBudgetTest(){
+        // cenário
+
+        User user = service.save(createNewUser()).join();
+        SqlStatements.reset();
+
+        // execução
+
+        service.patch(user.getId(), Collections.singletonMap("name", "Jhony Duly")).join();
+
+        // verificação
+
+        SqlStatements.atMost().selects(1).updates(1).verify();
+    }
+
+    @Test
+    @DisplayName("patch should skip the update when nothing changed")
+    public void patchWithoutChangesBudgetTest(){
+        // cenário
+
+        User user = service.save(createNewUser()).join();
+        SqlStatements.reset();
+
+        // execução
+
+        service.patch(user.getId(), user.getVersion(), Collections.singletonMap("name", user.getName())).join();
+
+        // verificação
+
+        SqlStatements.atMost().selects(1).verify();
+    }
+
+    @Test
+    @DisplayName("find without filters should issue a single select and no count")
+    public void findUnfilteredBudgetTest(){
+        // cenário
+
+        service.saveAll(Arrays.asList(createNewUser(), createNewUser()));
+        SqlStatements.reset();
+
+        // execução
+
+        Page<User> result = service.find(new User(), PageRequest.of(0, 20));
+
+        // verificação
+
+        assertThat(result.getContent()).isNotEmpty();
+        SqlStatements.atMost().selects(1).verify();
+    }
+
+    @Test
+    @DisplayName("find with filters should load the whole page in a single select")
+    public void findFilteredBudgetTest(){
+        // cenário
+
+        service.saveAll(Arrays.asList(createNewUser(), createNewUser(), createNewUser()));
+        SqlStatements.reset();
+
+        // execução
+
+        Page<User> result = service.find(User.builder().name("Statements").build(), PageRequest.of(0, 20));
+
+        // verificação
+
+        assertThat(result.getContent()).isNotEmpty();
+        SqlStatements.atMost().selects(1).verify();
+    }
+
+    @Test
+    @DisplayName("find with filters and sort should issue at most a select and a count")
+    public void findSortedBudgetTest(){
+        // cenário
+
+        service.saveAll(Arrays.asList(createNewUser(), createNewUser(), createNewUser()));
+        SqlStatements.reset();
+
+        // execução
+
+        service.find(User.builder().name("Statements").build(), PageRequest.of(0, 2, Sort.by("name")));
+
+        // verificação
+
+        SqlStatements.atMost().selects(2).verify();
+    }
+
+    @Test
+    @DisplayName("find through the example query should still match users that were updated")
+    public void findUpdatedUserTest(){
+        // cenário
+
+        User user = service.save(createNewUser()).join();
+        User changes = createNewUser();
+        changes.setName("Updated " + user.getName());
+        service.update(user.getId(), user.getVersion(), changes).join();
+
+        // execução
+
+        Page<User> result = service.find(User.builder().name(changes.getName()).build(),
+                PageRequest.of(0, 20, Sort.by("name")));
+
+        // verificação
+
+        assertThat(result.getContent()).extracting(User::getId).containsExactly(user.getId());
+        assertThat(result.getContent().get(0).getVersion()).isEqualTo(user.getVersion() + 1);
+    }
+
+    @Test
+    @DisplayName("findSlice should issue a single select")
+    public void findSliceBudgetTest(){
+        // cenário
+
+        service.saveAll(Arrays.asList(createNewUser(), createNewUser()));
+        SqlStatements.reset();
+
+        // execução
+
+        service.findSlice(new User(), PageRequest.of(0, 20));
+
+        // verificação
+
+        SqlStatements.atMost().selects(1).verify();
+    }
+
+    @Test
+    @DisplayName("findAfter should issue a single select")
+    public void findAfterBudgetTest(){
+        // cenário
+
+        service.saveAll(Arrays.asList(createNewUser(), createNewUser()));
+        SqlStatements.reset();
+
+        // execução
+
+        service.findAfter(new User(), null, 20);
+
+        // verificação
+
+        SqlStatements.atMost().selects(1).verify();
+    }
+
+    @Test
+    @DisplayName("export should stream every user from a single select")
+    public void exportBudgetTest(){
+        // cenário
+
+        service.saveAll(Arrays.asList(createNewUser(), createNewUser(), createNewUser()));
+        SqlStatements.reset();
+
+        // execução
+
+        List<User> exported = new ArrayList<>();
+        long count = service.export(new User(), exported::add);
+
+        // verificação
+
+        assertThat(count).isGreaterThanOrEqualTo(3);
+        SqlStatements.atMost().selects(1).verify();
+    }
+
+    private User createNewUser() {
+        long n = SEQUENCE.incrementAndGet();
+
+        return User.builder()
+                .name("Statements " + n)
+                .email("statements" + n + "@dole.com")
+                .role(1).cellphone("99999999999")
+                .password("12345678")
+                .build();
+    }
+}
@@ -4,7 +4,14 @@ import com.appempatia.empatiaapi.api.exception.BusinessException;
 import com.appempatia.empatiaapi.model.entity.User;
 import com.appempatia.empatiaapi.model.repository.UserRepository;
 import com.appempatia.empatiaapi.service.impl.UserServiceImpl;
+import com.appempatia.empatiaapi.service.support.EmailFilter;
+import com.appempatia.empatiaapi.service.support.PasswordHasher;
+import com.appempatia.empatiaapi.service.support.UserCache;
+import com.appempatia.empatiaapi.service.support.UserCounter;
+import com.appempatia.empatiaapi.service.support.UserSearchIndex;
+import com.appempatia.empatiaapi.service.support.UserWriteExecutor;
 import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,16 +19,30 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -33,9 +54,39 @@ public class UserServiceTest {
     @MockBean
     UserRepository repository;
 
+    @MockBean
+    EmailFilter emailFilter;
+
+    @MockBean
+    UserCounter userCounter;
+
+    @MockBean
+    UserSearchIndex searchIndex;
+
+    @MockBean
+    PasswordHasher passwordHasher;
+
+    @MockBean
+    PlatformTransactionManager transactionManager;
+
+    UserWriteExecutor writeExecutor = new UserWriteExecutor(1, 10);
+
     @BeforeEach
     public void setUp(){
-        this.service = new UserServiceImpl(repository);
+        Mockito.when(passwordHasher.hash(Mockito.anyString()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture("hashed:" + invocation.getArgument(0)));
+        Mockito.when(passwordHasher.hashAll(Mockito.anyList()))
+                .thenAnswer(invocation -> ((List<String>) invocation.getArgument(0)).stream()
+                        .map(password -> "hashed:" + password)
+                        .collect(Collectors.toList()));
+
+        this.service = new UserServiceImpl(repository, emailFilter, userCounter, searchIndex,
+                new UserCache(100, Duration.ofMinutes(1)), passwordHasher, transactionManager, writeExecutor);
+    }
+
+    @AfterEach
+    public void tearDown(){
+        writeExecutor.shutdown();
     }
 
     @Test
@@ -44,9 +95,7 @@ public class UserServiceTest {
         //cenario
         User user = createNewUser();
 
-        Mockito.when(repository.existsByEmail(Mockito.anyString())).thenReturn(false);
-
-        Mockito.when(repository.save(user)).thenReturn(User.builder()
+        Mockito.when(repository.saveAndFlush(user)).thenReturn(User.builder()
                         .id(1l)
                         .name("Jhon Dole")
                         .email("jhon@dole.com")
@@ -55,7 +104,7 @@ public class UserServiceTest {
                         .build());
 
         // execução
-        User savedUser = service.save(user);
+        User savedUser = service.save(user).join();
 
         // verificação
         assertThat(savedUser.getId()).isNotNull();
@@ -74,20 +123,129 @@ public class UserServiceTest {
         // cenário
 
         User user = createNewUser();
-        Mockito.when(repository.existsByEmail(Mockito.anyString())).thenReturn(true);
+        Mockito.when(repository.saveAndFlush(user)).thenThrow(new DataIntegrityViolationException("uk_user_email"));
 
         //execução
 
-        Throwable execption = Assertions.catchThrowable(()->service.save(user));
+        Throwable execption = Assertions.catchThrowable(()->service.save(user).join());
 
         //verificação
+        assertThat(execption).isInstanceOf(CompletionException.class);
+        assertThat(execption.getCause())
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("E-mail já cadastrado.");
+
+        Mockito.verify(repository,Mockito.never()).existsByEmail(Mockito.anyString());
+
+
+    }
+
+    @Test
+    @DisplayName("Should not check the database when the e-mail filter has never seen the e-mail")
+    public void saveUserSkippingExistsCheckTest(){
+        User user = createNewUser();
+
+        Mockito.when(emailFilter.mightContain(user.getEmail())).thenReturn(false);
+        Mockito.when(repository.saveAndFlush(user)).thenReturn(user);
+
+        service.save(user).join();
+
+        Mockito.verify(repository, Mockito.never()).existsByEmail(Mockito.anyString());
+        Mockito.verify(emailFilter).put(user.getEmail());
+    }
+
+    @Test
+    @DisplayName("Should not insert when the e-mail filter and the database both know the e-mail")
+    public void shouldNotSaveUserKnownByEmailFilter(){
+        User user = createNewUser();
+
+        Mockito.when(emailFilter.mightContain(user.getEmail())).thenReturn(true);
+        Mockito.when(repository.existsByEmail(user.getEmail())).thenReturn(true);
+
+        Throwable execption = Assertions.catchThrowable(()->service.save(user));
+
         assertThat(execption)
                 .isInstanceOf(BusinessException.class)
                 .hasMessage("E-mail já cadastrado.");
 
-        Mockito.verify(repository,Mockito.never()).save(user);
+        Mockito.verify(repository, Mockito.never()).saveAndFlush(user);
+    }
+
+    @Test
+    @DisplayName("Should record a false positive when the database does not know the e-mail")
+    public void saveUserAfterFalsePositiveTest(){
+        User user = createNewUser();
+
+        Mockito.when(emailFilter.mightContain(user.getEmail())).thenReturn(true);
+        Mockito.when(repository.existsByEmail(user.getEmail())).thenReturn(false);
+        Mockito.when(repository.saveAndFlush(user)).thenReturn(user);
+
+        service.save(user).join();
+
+        Mockito.verify(emailFilter).falsePositive();
+        Mockito.verify(repository).saveAndFlush(user);
+    }
+
+    @Test
+    @DisplayName("Should store only the hash of the password")
+    public void saveUserHashingPasswordTest(){
+        User user = createNewUser();
+        String password = user.getPassword();
+
+        Mockito.when(repository.saveAndFlush(user)).thenReturn(user);
+
+        User savedUser = service.save(user).join();
+
+        assertThat(savedUser.getPassword()).isEqualTo("hashed:" + password);
+        Mockito.verify(passwordHasher).hash(password);
+    }
+
+    @Test
+    @DisplayName("Should not spend a hash on an e-mail that is already registered")
+    public void shouldNotHashPasswordOfDuplicatedEmail(){
+        User user = createNewUser();
 
+        Mockito.when(emailFilter.mightContain(user.getEmail())).thenReturn(true);
+        Mockito.when(repository.existsByEmail(user.getEmail())).thenReturn(true);
 
+        Assertions.catchThrowable(()->service.save(user));
+
+        Mockito.verify(passwordHasher, Mockito.never()).hash(Mockito.anyString());
+    }
+
+    @Test
+    @DisplayName("Should save users in batch rejecting known and repeated e-mails")
+    public void saveAllTest(){
+        User first = createNewUser();
+        User known = User.builder().email("mary@dole.com").build();
+        User repeated = createNewUser();
+        List<User> users = Arrays.asList(first, known, repeated);
+
+        Mockito.when(emailFilter.mightContain(Mockito.anyString())).thenReturn(true);
+        Mockito.when(repository.findExistingEmails(Mockito.anyCollection())).thenReturn(Collections.singletonList("mary@dole.com"));
+
+        Map<Integer, String> rejected = service.saveAll(users);
+
+        assertThat(rejected).containsOnlyKeys(1, 2);
+        assertThat(rejected.get(1)).isEqualTo("E-mail já cadastrado.");
+        Mockito.verify(repository).saveAll(Collections.singletonList(first));
+        Mockito.verify(repository).flush();
+        Mockito.verify(passwordHasher).hashAll(Collections.singletonList("12345678"));
+        Mockito.verify(userCounter).add(1);
+    }
+
+    @Test
+    @DisplayName("Should only look up e-mails the filter might know")
+    public void saveAllSkippingLookupTest(){
+        List<User> users = Arrays.asList(createNewUser());
+
+        Mockito.when(emailFilter.mightContain(Mockito.anyString())).thenReturn(false);
+
+        Map<Integer, String> rejected = service.saveAll(users);
+
+        assertThat(rejected).isEmpty();
+        Mockito.verify(repository, Mockito.never()).findExistingEmails(Mockito.anyCollection());
+        Mockito.verify(repository).saveAll(users);
     }
 
     @Test
@@ -114,6 +272,51 @@ public class UserServiceTest {
         assertThat(foundUser.get().getPassword()).isEqualTo(user.getPassword());
     }
 
+    @Test
+    @DisplayName("Should read an user from the database only once")
+    public void getByIdFromCacheTest(){
+        Long id = 1l;
+        User user = createNewUser();
+        user.setId(id);
+        Mockito.when(repository.findById(id)).thenReturn(Optional.of(user));
+
+        service.getById(id);
+        Optional<User> foundUser = service.getById(id);
+
+        assertThat(foundUser.get().getName()).isEqualTo(user.getName());
+        Mockito.verify(repository, Mockito.times(1)).findById(id);
+    }
+
+    @Test
+    @DisplayName("Should read an user again after it is deleted")
+    public void getByIdAfterDeleteTest(){
+        Long id = 1l;
+        User user = createNewUser();
+        user.setId(id);
+        Mockito.when(repository.findById(id)).thenReturn(Optional.of(user), Optional.empty());
+        Mockito.when(repository.deleteUserById(id)).thenReturn(1);
+
+        service.getById(id);
+        service.deleteById(id);
+
+        assertThat(service.getById(id).isPresent()).isFalse();
+        Mockito.verify(repository, Mockito.times(2)).findById(id);
+    }
+
+    @Test
+    @DisplayName("Should serve the updated user without reading the database")
+    public void getByIdAfterUpdateTest(){
+        Long id = 1l;
+        User updated = createNewUser();
+        updated.setName("Jhony Duly");
+        Mockito.when(repository.updateByIdAndVersion(id, 0l, updated)).thenReturn(1);
+
+        service.update(id, 0l, updated).join();
+
+        assertThat(service.getById(id).get().getName()).isEqualTo("Jhony Duly");
+        Mockito.verify(repository, Mockito.never()).findById(id);
+    }
+
     @Test
     @DisplayName("Should return empty when user does not exists")
     public void userNotFoundByIdTest(){
@@ -132,56 +335,263 @@ public class UserServiceTest {
     }
 
     @Test
-    @DisplayName("Should delete an user")
-    public void deleteUserTest(){
-        User user = User.builder().id(1l).build();
+    @DisplayName("Should delete an user by id with a single statement")
+    public void deleteByIdTest(){
+        Mockito.when(repository.deleteUserById(1l)).thenReturn(1);
+
+        boolean deleted = service.deleteById(1l);
+
+        assertThat(deleted).isTrue();
+        Mockito.verify(repository, Mockito.never()).findById(Mockito.anyLong());
+        Mockito.verify(userCounter).decrement();
+        Mockito.verify(searchIndex).remove(1l);
+    }
+
+    @Test
+    @DisplayName("Should report when there was no user to delete")
+    public void deleteByInexistentIdTest(){
+        Mockito.when(repository.deleteUserById(1l)).thenReturn(0);
 
-        org.junit.jupiter.api.Assertions.assertDoesNotThrow(()->service.delete(user));
+        boolean deleted = service.deleteById(1l);
 
-        Mockito.verify(repository, Mockito.times(1)).delete(user);
+        assertThat(deleted).isFalse();
+        Mockito.verify(userCounter, Mockito.never()).decrement();
     }
 
     @Test
-    @DisplayName("Should throw error when try to delete inexistent user")
+    @DisplayName("Should update the cache, index and counters only after the delete commits")
+    public void deleteSideEffectsAfterCommitTest(){
+        Mockito.when(repository.deleteUserById(1l)).thenReturn(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThat(service.deleteById(1l)).isTrue();
+
+            Mockito.verify(userCounter, Mockito.never()).decrement();
+            Mockito.verify(searchIndex, Mockito.never()).remove(1l);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            Mockito.verify(userCounter).decrement();
+            Mockito.verify(searchIndex).remove(1l);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should throw error when try to delete without an id")
     public void deleteInvalidUserTest(){
-        User user = new User();
+        org.junit.jupiter.api.Assertions.assertThrows(IllegalArgumentException.class, () -> service.deleteById(null));
+
+        Mockito.verify(repository, Mockito.never()).deleteUserById(Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Should update an user by id with a single statement")
+    public void updateByIdTest(){
+        User user = createNewUser();
+
+        Mockito.when(repository.updateById(1l, user)).thenReturn(1);
 
-        org.junit.jupiter.api.Assertions.assertThrows(IllegalArgumentException.class, () -> service.delete(user));
+        Optional<User> updated = service.update(1l, user).join();
 
-        Mockito.verify(repository, Mockito.never()).delete(user);
+        assertThat(updated.isPresent()).isTrue();
+        assertThat(updated.get().getId()).isEqualTo(1l);
+        Mockito.verify(repository, Mockito.never()).findById(Mockito.anyLong());
     }
 
     @Test
-    @DisplayName("Should update an user")
-    public void updateUserTest(){
-        Long id = 1l;
+    @DisplayName("Should keep the stored password when the update does not send one")
+    public void updateByIdWithoutPasswordTest(){
+        User user = createNewUser();
+        user.setPassword(null);
+
+        Mockito.when(repository.updateProfileById(1l, user)).thenReturn(1);
+        Mockito.when(repository.updateProfileByIdAndVersion(1l, 3l, user)).thenReturn(1);
 
-        User updatingUser = User.builder().id(id).build();
+        assertThat(service.update(1l, user).join().isPresent()).isTrue();
+        assertThat(service.update(1l, 3l, user).join().isPresent()).isTrue();
 
-        User updatedUser = createNewUser();
-        updatedUser.setId(id);
+        Mockito.verify(repository, Mockito.never()).updateById(Mockito.any(), Mockito.any(User.class));
+        Mockito.verify(repository, Mockito.never()).updateByIdAndVersion(Mockito.any(), Mockito.anyLong(), Mockito.any(User.class));
+        Mockito.verify(passwordHasher, Mockito.never()).hash(Mockito.any());
+    }
 
-        Mockito.when(repository.save(updatingUser)).thenReturn(updatedUser);
+    @Test
+    @DisplayName("Should drop the cached user after an update by id since the new version is unknown")
+    public void updateByIdEvictsCacheTest(){
+        User cached = createNewUser();
+        cached.setId(1l);
+        Mockito.when(repository.findById(1l)).thenReturn(Optional.of(cached));
+        service.getById(1l);
 
-         User user = service.update(updatingUser);
+        User user = createNewUser();
+        Mockito.when(repository.updateById(1l, user)).thenReturn(1);
+        service.update(1l, user).join();
 
-        assertThat(user.getId()).isEqualTo(updatedUser.getId());
-        assertThat(user.getName()).isEqualTo(updatedUser.getName());
-        assertThat(user.getEmail()).isEqualTo(updatedUser.getEmail());
-        assertThat(user.getRole()).isEqualTo(updatedUser.getRole());
-        assertThat(user.getCellphone()).isEqualTo(updatedUser.getCellphone());
-        assertThat(user.getPassword()).isEqualTo(updatedUser.getPassword());
+        Mockito.when(repository.findVersionById(1l)).thenReturn(Optional.of(1l));
 
+        assertThat(service.findVersion(1l)).contains(1l);
+        Mockito.verify(repository).findVersionById(1l);
     }
 
     @Test
-    @DisplayName("Should throw error when try to update inexistent user")
+    @DisplayName("Should resolve the version from the cache before asking the database")
+    public void findVersionTest(){
+        User user = createNewUser();
+        user.setId(1l);
+        user.setVersion(3l);
+        Mockito.when(repository.findById(1l)).thenReturn(Optional.of(user));
+        service.getById(1l);
+
+        assertThat(service.findVersion(1l)).contains(3l);
+        Mockito.verify(repository, Mockito.never()).findVersionById(Mockito.anyLong());
+
+        Mockito.when(repository.findVersionById(2l)).thenReturn(Optional.empty());
+        assertThat(service.findVersion(2l)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return empty when there was no user to update")
+    public void updateByInexistentIdTest(){
+        User user = createNewUser();
+
+        Mockito.when(repository.updateById(1l, user)).thenReturn(0);
+
+        assertThat(service.update(1l, user).join().isPresent()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should throw an business error when updating by id to a duplicated e-mail")
+    public void updateByIdWithDuplicatedEmailTest(){
+        User user = createNewUser();
+
+        Mockito.when(repository.updateById(1l, user)).thenThrow(new DataIntegrityViolationException("uk_user_email"));
+
+        Throwable execption = Assertions.catchThrowable(()->service.update(1l, user).join());
+
+        assertThat(execption.getCause())
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("E-mail já cadastrado.");
+    }
+
+    @Test
+    @DisplayName("Should apply only the fields present in the patch")
+    public void patchTest(){
+        User user = createNewUser();
+        user.setId(1l);
+        Mockito.when(repository.findById(1l)).thenReturn(Optional.of(user));
+
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("cellphone", "11111111111");
+        changes.put("role", 2);
+
+        Optional<User> patched = service.patch(1l, changes).join();
+
+        assertThat(patched.get().getCellphone()).isEqualTo("11111111111");
+        assertThat(patched.get().getRole()).isEqualTo(2);
+        assertThat(patched.get().getName()).isEqualTo("Jhon Dole");
+        Mockito.verify(repository).flush();
+        Mockito.verify(repository, Mockito.never()).saveAndFlush(Mockito.any(User.class));
+    }
+
+    @Test
+    @DisplayName("Should store only the hash of a patched password")
+    public void patchPasswordTest(){
+        User user = createNewUser();
+        user.setId(1l);
+        Mockito.when(repository.findById(1l)).thenReturn(Optional.of(user));
+
+        Optional<User> patched = service.patch(1l, Collections.singletonMap("password", "87654321")).join();
+
+        assertThat(patched.get().getPassword()).isEqualTo("hashed:87654321");
+        Mockito.verify(passwordHasher).hash("87654321");
+    }
+
+    @Test
+    @DisplayName("Should update an user only when the version still matches")
+    public void updateByIdAndVersionTest(){
+        User user = createNewUser();
+
+        Mockito.when(repository.updateByIdAndVersion(1l, 3l, user)).thenReturn(1);
+
+        Optional<User> updated = service.update(1l, 3l, user).join();
+
+        assertThat(updated.get().getVersion()).isEqualTo(4l);
+        assertThat(service.findVersion(1l)).contains(4l);
+        Mockito.verify(repository, Mockito.never()).findVersionById(Mockito.anyLong());
+    }
+
+    @Test
+    @DisplayName("Should fail the update when another request changed the user first")
+    public void updateByIdAndStaleVersionTest(){
+        User user = createNewUser();
+
+        Mockito.when(repository.updateByIdAndVersion(1l, 3l, user)).thenReturn(0);
+        Mockito.when(repository.findVersionById(1l)).thenReturn(Optional.of(4l));
+
+        Throwable execption = Assertions.catchThrowable(()->service.update(1l, 3l, user).join());
+
+        assertThat(execption.getCause()).isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    @DisplayName("Should return empty when the versioned update finds no user")
+    public void updateByInexistentIdAndVersionTest(){
+        User user = createNewUser();
+
+        Mockito.when(repository.updateByIdAndVersion(1l, 3l, user)).thenReturn(0);
+        Mockito.when(repository.findVersionById(1l)).thenReturn(Optional.empty());
+
+        assertThat(service.update(1l, 3l, user).join().isPresent()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not patch an user whose version changed")
+    public void patchStaleVersionTest(){
+        User user = createNewUser();
+        user.setId(1l);
+        user.setVersion(4l);
+        Mockito.when(repository.findById(1l)).thenReturn(Optional.of(user));
+
+        Throwable execption = Assertions.catchThrowable(() -> service.patch(1l, 3l, Collections.singletonMap("name", "Jhon")).join());
+
+        assertThat(execption.getCause()).isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(user.getName()).isEqualTo("Jhon Dole");
+        Mockito.verify(repository, Mockito.never()).flush();
+    }
+
+    @Test
+    @DisplayName("Should reject patches that clear or touch unknown fields")
+    public void invalidPatchTest(){
+        User user = createNewUser();
+        user.setId(1l);
+        Mockito.when(repository.findById(1l)).thenReturn(Optional.of(user));
+
+        assertThat(Assertions.catchThrowable(() -> service.patch(1l, Collections.singletonMap("name", null)).join()))
+                .hasCauseInstanceOf(BusinessException.class);
+        assertThat(Assertions.catchThrowable(() -> service.patch(1l, Collections.singletonMap("id", 2)).join()))
+                .hasCauseInstanceOf(BusinessException.class);
+        Mockito.verify(repository, Mockito.never()).flush();
+    }
+
+    @Test
+    @DisplayName("Should return empty when patching an inexistent user")
+    public void patchInexistentUserTest(){
+        Mockito.when(repository.findById(1l)).thenReturn(Optional.empty());
+
+        assertThat(service.patch(1l, Collections.singletonMap("name", "Jhon")).join().isPresent()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should throw error when try to update without an id")
     public void updateInvalidUserTest(){
-        User user = new User();
+        User user = createNewUser();
 
-        org.junit.jupiter.api.Assertions.assertThrows(IllegalArgumentException.class, () -> service.update(user));
+        org.junit.jupiter.api.Assertions.assertThrows(IllegalArgumentException.class, () -> service.update(null, user));
 
-        Mockito.verify(repository, Mockito.never()).save(user);
+        Mockito.verify(repository, Mockito.never()).updateById(Mockito.any(), Mockito.any(User.class));
     }
 
     @Test
@@ -207,6 +617,99 @@ public class UserServiceTest {
         assertThat(result.getPageable().getPageSize()).isEqualTo(10);
     }
 
+    @Test
+    @DisplayName("Should use the cached total instead of a count query for unfiltered listings")
+    public void findAllUsersWithCachedTotalTest(){
+        User filter = new User();
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        List<User> list = Arrays.asList(createNewUser());
+
+        Mockito.when(userCounter.isReady()).thenReturn(true);
+        Mockito.when(userCounter.get()).thenReturn(42l);
+        Mockito.when(repository.findSlice(filter, pageRequest)).thenReturn(new SliceImpl<>(list, pageRequest, true));
+
+        Page<User> result = service.find(filter, pageRequest);
+
+        assertThat(result.getTotalElements()).isEqualTo(42);
+        assertThat(result.getContent()).isEqualTo(list);
+        Mockito.verify(repository, Mockito.never()).findAll(Mockito.any(Example.class), Mockito.any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("Should count with the query when the listing is filtered")
+    public void findFilteredUsersCountsTest(){
+        User filter = User.builder().name("dole").build();
+        PageRequest pageRequest = PageRequest.of(0, 10);
+
+        Mockito.when(userCounter.isReady()).thenReturn(true);
+        Mockito.when(repository.findAll(Mockito.any(Example.class), Mockito.any(PageRequest.class)))
+                .thenReturn(new PageImpl<User>(Arrays.asList(createNewUser()), pageRequest, 1));
+
+        Page<User> result = service.find(filter, pageRequest);
+
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        Mockito.verify(repository, Mockito.never()).findSlice(Mockito.any(User.class), Mockito.any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("Should answer filtered listings from the search index when it can")
+    public void findUsersFromSearchIndexTest(){
+        User filter = User.builder().name("dole").build();
+        PageRequest pageRequest = PageRequest.of(1, 2);
+
+        Mockito.when(searchIndex.search(filter)).thenReturn(new long[]{1, 2, 3, 4, 5});
+        Mockito.when(repository.findAllById(Arrays.asList(3l, 4l)))
+                .thenReturn(Arrays.asList(User.builder().id(4l).build(), User.builder().id(3l).build()));
+
+        Page<User> result = service.find(filter, pageRequest);
+
+        assertThat(result.getTotalElements()).isEqualTo(5);
+        assertThat(result.getContent()).extracting(User::getId).containsExactly(3l, 4l);
+        Mockito.verify(repository, Mockito.never()).findAll(Mockito.any(Example.class), Mockito.any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("Should keep the cached total in sync with creates and deletes")
+    public void counterSyncTest(){
+        User user = createNewUser();
+        Mockito.when(repository.saveAndFlush(user)).thenReturn(user);
+
+        Mockito.when(repository.deleteUserById(1l)).thenReturn(1);
+
+        service.save(user).join();
+        service.deleteById(1l);
+
+        Mockito.verify(userCounter).increment();
+        Mockito.verify(userCounter).decrement();
+    }
+
+    @Test
+    @DisplayName("Should fetch one extra row to know if there is a next cursor page")
+    public void findAfterTest(){
+        User filter = new User();
+        List<User> rows = Arrays.asList(User.builder().id(3l).build(), User.builder().id(4l).build(), User.builder().id(5l).build());
+
+        Mockito.when(repository.findAfter(filter, 2l, 3)).thenReturn(rows);
+
+        Slice<User> result = service.findAfter(filter, 2l, 2);
+
+        assertThat(result.hasNext()).isTrue();
+        assertThat(result.getContent()).extracting(User::getId).containsExactly(3l, 4l);
+    }
+
+    @Test
+    @DisplayName("Should report the last cursor page")
+    public void findAfterLastPageTest(){
+        User filter = new User();
+
+        Mockito.when(repository.findAfter(filter, null, 3)).thenReturn(Arrays.asList(User.builder().id(1l).build()));
+
+        Slice<User> result = service.findAfter(filter, null, 2);
+
+        assertThat(result.hasNext()).isFalse();
+        assertThat(result.getContent()).hasSize(1);
+    }
+
     private User createNewUser() {
         return User.builder().name("Jhon Dole").email("jhon@dole.com").role(1).cellphone("99999999999").password("12345678").build();
     }
@@ -0,0 +1,72 @@
+package com.appempatia.empatiaapi.service.support;
+
+import com.appempatia.empatiaapi.model.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmailFilterTest {
+
+    UserRepository repository;
+    EmailFilter filter;
+
+    @BeforeEach
+    public void setUp(){
+        repository = Mockito.mock(UserRepository.class);
+        filter = new EmailFilter(repository, Mockito.mock(PlatformTransactionManager.class), 1000, 0.01);
+    }
+
+    @Test
+    @DisplayName("Should answer maybe for every e-mail before warming up")
+    public void notReadyTest(){
+        assertThat(filter.isReady()).isFalse();
+        assertThat(filter.mightContain("jhon@dole.com")).isTrue();
+        assertThat(filter.getQueries()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should load registered e-mails on warm up")
+    public void warmUpTest(){
+        Mockito.when(repository.streamAllEmails()).thenReturn(Stream.of("jhon@dole.com", "mary@dole.com"));
+
+        filter.warmUp();
+
+        assertThat(filter.isReady()).isTrue();
+        assertThat(filter.mightContain("jhon@dole.com")).isTrue();
+        assertThat(filter.mightContain("mary@dole.com")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should never answer no for an e-mail that was put")
+    public void noFalseNegativesTest(){
+        Mockito.when(repository.streamAllEmails()).thenReturn(Stream.empty());
+        filter.warmUp();
+
+        IntStream.range(0, 1000).forEach(i -> filter.put("user" + i + "@dole.com"));
+
+        assertThat(IntStream.range(0, 1000).allMatch(i -> filter.mightContain("user" + i + "@dole.com"))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep the false positive rate close to the configured one")
+    public void falsePositiveRateTest(){
+        Mockito.when(repository.streamAllEmails()).thenReturn(Stream.empty());
+        filter.warmUp();
+
+        IntStream.range(0, 1000).forEach(i -> filter.put("user" + i + "@dole.com"));
+
+        long positives = IntStream.range(0, 10000)
+                .filter(i -> filter.mightContain("other" + i + "@dole.com"))
+                .count();
+
+        assertThat(positives).isLessThan(500);
+        assertThat(filter.getHitRate()).isGreaterThan(0.9);
+    }
+}
@@ -0,0 +1,78 @@
+package com.appempatia.empatiaapi.service.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PasswordHasherTest {
+
+    PasswordHasher hasher = new PasswordHasher(2, 10, 4, Duration.ZERO, 0);
+
+    @AfterEach
+    public void tearDown(){
+        hasher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should keep the minimum strength when it already exceeds the target latency")
+    public void calibrateToMinimumTest(){
+        hasher.calibrate();
+
+        assertThat(hasher.getStrength()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should raise the strength while a hash stays under the target latency")
+    public void calibrateUpTest(){
+        PasswordHasher slow = new PasswordHasher(1, 10, 4, Duration.ofSeconds(1), 0);
+        slow.calibrate();
+
+        assertThat(slow.getStrength()).isGreaterThan(4);
+        slow.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should hash passwords off the caller thread and record the hash time")
+    public void hashTest(){
+        String hash = hasher.hash("12345678").join();
+
+        assertThat(hash).isNotEqualTo("12345678");
+        assertThat(BCrypt.checkpw("12345678", hash)).isTrue();
+        assertThat(hasher.getHashes()).isEqualTo(1);
+        assertThat(hasher.getAverageHashMillis()).isGreaterThan(0);
+    }
+
+    @Test
+    @DisplayName("Should hash a batch keeping the original order")
+    public void hashAllTest(){
+        List<String> hashes = hasher.hashAll(Arrays.asList("first", "second", "third"));
+
+        assertThat(hashes).hasSize(3);
+        assertThat(BCrypt.checkpw("first", hashes.get(0))).isTrue();
+        assertThat(BCrypt.checkpw("second", hashes.get(1))).isTrue();
+        assertThat(BCrypt.checkpw("third", hashes.get(2))).isTrue();
+        assertThat(hasher.getQueueDepth()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Should hash a batch larger than the queue without taking every slot")
+    public void hashAllWindowTest(){
+        PasswordHasher small = new PasswordHasher(1, 2, 4, Duration.ZERO, 1);
+
+        List<String> hashes = small.hashAll(Arrays.asList("first", "second", "third", "fourth", "fifth"));
+        String single = small.hash("single").join();
+
+        assertThat(hashes).hasSize(5);
+        assertThat(BCrypt.checkpw("fifth", hashes.get(4))).isTrue();
+        assertThat(BCrypt.checkpw("single", single)).isTrue();
+        assertThat(small.getRejected()).isZero();
+        small.shutdown();
+    }
+}
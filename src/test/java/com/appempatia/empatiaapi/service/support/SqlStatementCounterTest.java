@@ -0,0 +1,39 @@
+package com.appempatia.empatiaapi.service.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SqlStatementCounterTest {
+
+    SqlStatementCounter inspector = new SqlStatementCounter();
+
+    @AfterEach
+    public void tearDown(){
+        SqlStatementCounter.clear();
+    }
+
+    @Test
+    @DisplayName("Should keep counting statements when the work hops to another thread")
+    public void propagateTest() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+        SqlStatementCounter.bind(counter);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture.runAsync(SqlStatementCounter.propagate(() -> inspector.inspect("insert")), executor).get();
+            CompletableFuture.runAsync(() -> inspector.inspect("insert"), executor).get();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(counter.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,48 @@
+package com.appempatia.empatiaapi.service.support;
+
+import com.appempatia.empatiaapi.model.entity.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserCacheTest {
+
+    UserCache cache = new UserCache(100, Duration.ofMinutes(1));
+
+    @Test
+    @DisplayName("Should hand out copies so callers can not change the cached user")
+    public void copyTest(){
+        cache.put(User.builder().id(1l).name("Jhon Dole").build());
+
+        User user = cache.get(1l, id -> null).get();
+        user.setName("Jhony Duly");
+
+        assertThat(cache.get(1l, id -> null).get().getName()).isEqualTo("Jhon Dole");
+    }
+
+    @Test
+    @DisplayName("Should not cache missing users")
+    public void missTest(){
+        assertThat(cache.get(1l, id -> null).isPresent()).isFalse();
+        assertThat(cache.get(1l, id -> User.builder().id(id).build()).isPresent()).isTrue();
+
+        assertThat(cache.stats().missCount()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should record hits and forget evicted users")
+    public void statsTest(){
+        cache.put(User.builder().id(1l).build());
+
+        cache.get(1l, id -> null);
+        cache.evict(1l);
+        cache.get(1l, id -> null);
+
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+    }
+}
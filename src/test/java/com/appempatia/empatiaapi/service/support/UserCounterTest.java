@@ -0,0 +1,29 @@
+package com.appempatia.empatiaapi.service.support;
+
+import com.appempatia.empatiaapi.model.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserCounterTest {
+
+    @Test
+    @DisplayName("Should start from the database count and follow creates and deletes")
+    public void countTest(){
+        UserRepository repository = Mockito.mock(UserRepository.class);
+        Mockito.when(repository.count()).thenReturn(10l);
+
+        UserCounter counter = new UserCounter(repository);
+        assertThat(counter.isReady()).isFalse();
+
+        counter.warmUp();
+        counter.increment();
+        counter.add(5);
+        counter.decrement();
+
+        assertThat(counter.isReady()).isTrue();
+        assertThat(counter.get()).isEqualTo(15);
+    }
+}
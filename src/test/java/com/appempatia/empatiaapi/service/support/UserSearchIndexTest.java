@@ -0,0 +1,80 @@
+package com.appempatia.empatiaapi.service.support;
+
+import com.appempatia.empatiaapi.model.entity.User;
+import com.appempatia.empatiaapi.model.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserSearchIndexTest {
+
+    UserRepository repository;
+    UserSearchIndex index;
+
+    @BeforeEach
+    public void setUp(){
+        repository = Mockito.mock(UserRepository.class);
+        index = new UserSearchIndex(repository, Mockito.mock(PlatformTransactionManager.class), true);
+
+        Mockito.when(repository.streamSearchFields()).thenReturn(Stream.of(
+                new Object[]{1l, "Jhon Dole", "jhon@dole.com", "99999999999", 1},
+                new Object[]{2l, "Mary Dole", "mary@dole.com", "88888888888", 2}
+        ));
+        index.warmUp();
+    }
+
+    @Test
+    @DisplayName("Should not answer before warming up")
+    public void notReadyTest(){
+        UserSearchIndex cold = new UserSearchIndex(repository, Mockito.mock(PlatformTransactionManager.class), true);
+
+        assertThat(cold.search(User.builder().name("dole").build())).isNull();
+    }
+
+    @Test
+    @DisplayName("Should find users containing the filter ignoring case")
+    public void containingIgnoreCaseTest(){
+        assertThat(index.search(User.builder().name("DOLE").build())).containsExactly(1, 2);
+        assertThat(index.search(User.builder().email("mary@").build())).containsExactly(2);
+        assertThat(index.search(User.builder().name("dole").role(1).build())).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Should verify candidates against the whole value")
+    public void verifyCandidatesTest(){
+        index.put(User.builder().id(3l).name("ole dol").email("x@y.com").build());
+
+        assertThat(index.search(User.builder().name("dole").build())).containsExactly(1, 2);
+    }
+
+    @Test
+    @DisplayName("Should return no ids when a trigram is unknown")
+    public void unknownTrigramTest(){
+        assertThat(index.search(User.builder().name("paul").build())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not answer filters it cannot index")
+    public void fallbackTest(){
+        assertThat(index.search(User.builder().name("do").build())).isNull();
+        assertThat(index.search(User.builder().password("123").build())).isNull();
+        assertThat(index.search(new User())).isNull();
+    }
+
+    @Test
+    @DisplayName("Should follow updates and deletes")
+    public void maintenanceTest(){
+        index.put(User.builder().id(1l).name("Paul Smith").email("paul@smith.com").build());
+        index.remove(2l);
+
+        assertThat(index.search(User.builder().name("dole").build())).isEmpty();
+        assertThat(index.search(User.builder().name("smith").build())).containsExactly(1);
+        assertThat(index.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,144 @@
+package com.appempatia.empatiaapi.support;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public final class SqlStatements {
+
+    public enum Kind { SELECT, INSERT, UPDATE, DELETE, SEQUENCE, OTHER }
+
+    private static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+    private SqlStatements() {
+    }
+
+    public static DataSource proxy(DataSource dataSource) {
+        return ProxyDataSourceBuilder.create(dataSource)
+                .name("sql-statements")
+                .listener(new Recorder())
+                .build();
+    }
+
+    public static void reset() {
+        STATEMENTS.clear();
+    }
+
+    public static List<String> recorded() {
+        synchronized (STATEMENTS) {
+            return new ArrayList<>(STATEMENTS);
+        }
+    }
+
+    public static long count(Kind kind) {
+        return recorded().stream().filter(sql -> kindOf(sql) == kind).count();
+    }
+
+    public static Budget atMost() {
+        return new Budget();
+    }
+
+    static Kind kindOf(String sql) {
+        String normalized = sql.trim().toLowerCase(Locale.ROOT);
+
+        if(normalized.contains("next value for") || normalized.contains("nextval(")){
+            return Kind.SEQUENCE;
+        }
+        if(normalized.startsWith("select")){
+            return Kind.SELECT;
+        }
+        if(normalized.startsWith("insert")){
+            return Kind.INSERT;
+        }
+        if(normalized.startsWith("update")){
+            return Kind.UPDATE;
+        }
+        if(normalized.startsWith("delete")){
+            return Kind.DELETE;
+        }
+
+        return Kind.OTHER;
+    }
+
+    public static final class Budget {
+
+        private final Map<Kind, Long> limits = new EnumMap<>(Kind.class);
+
+        private Budget() {
+            for(Kind kind : Kind.values()){
+                limits.put(kind, kind == Kind.SEQUENCE ? Long.MAX_VALUE : 0L);
+            }
+        }
+
+        public Budget selects(long max) {
+            return limit(Kind.SELECT, max);
+        }
+
+        public Budget inserts(long max) {
+            return limit(Kind.INSERT, max);
+        }
+
+        public Budget updates(long max) {
+            return limit(Kind.UPDATE, max);
+        }
+
+        public Budget deletes(long max) {
+            return limit(Kind.DELETE, max);
+        }
+
+        public Budget sequences(long max) {
+            return limit(Kind.SEQUENCE, max);
+        }
+
+        public Budget others(long max) {
+            return limit(Kind.OTHER, max);
+        }
+
+        public void verify() {
+            List<String> statements = recorded();
+            Map<Kind, Long> actual = statements.stream()
+                    .collect(Collectors.groupingBy(SqlStatements::kindOf, () -> new EnumMap<>(Kind.class), Collectors.counting()));
+
+            List<String> exceeded = new ArrayList<>();
+            actual.forEach((kind, count) -> {
+                if(count > limits.get(kind)){
+                    exceeded.add(kind + " " + count + " > " + limits.get(kind));
+                }
+            });
+
+            if(!exceeded.isEmpty()){
+                throw new AssertionError("SQL statement budget exceeded (" + String.join(", ", exceeded) + "):\n  "
+                        + String.join("\n  ", statements));
+            }
+        }
+
+        private Budget limit(Kind kind, long max) {
+            limits.put(kind, max);
+            return this;
+        }
+    }
+
+    private static class Recorder implements QueryExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            for(QueryInfo queryInfo : queryInfoList){
+                STATEMENTS.add(queryInfo.getQuery());
+            }
+        }
+    }
+}
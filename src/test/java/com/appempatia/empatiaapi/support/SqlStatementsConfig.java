@@ -0,0 +1,26 @@
+package com.appempatia.empatiaapi.support;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+@TestConfiguration
+public class SqlStatementsConfig {
+
+    @Bean
+    public static BeanPostProcessor sqlStatementsDataSourceProxy() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if(bean instanceof DataSource && !(bean instanceof ProxyDataSource)){
+                    return SqlStatements.proxy((DataSource) bean);
+                }
+
+                return bean;
+            }
+        };
+    }
+}